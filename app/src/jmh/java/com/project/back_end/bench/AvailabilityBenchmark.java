@@ -0,0 +1,60 @@
+package com.project.back_end.bench;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.DoctorService;
+
+/**
+ * Slot-diff step of DoctorService.getDoctorAvailability: template slots minus
+ * the times already booked that day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AvailabilityBenchmark {
+
+    // 8 = hourly day, 48 = 10-minute slots over 8 hours
+    @Param({ "8", "48" })
+    public int slotsPerDay;
+
+    @Param({ "0.25", "0.75" })
+    public double bookedRatio;
+
+    private List<String> template;
+    private List<Appointment> booked;
+
+    @Setup
+    public void setUp() {
+        template = new ArrayList<>(slotsPerDay);
+        int minutesPerSlot = 480 / slotsPerDay;
+        for (int i = 0; i < slotsPerDay; i++) {
+            LocalTime start = LocalTime.of(9, 0).plusMinutes((long) i * minutesPerSlot);
+            template.add(start + "-" + start.plusMinutes(minutesPerSlot));
+        }
+
+        Doctor doctor = BenchmarkData.doctors(1, 7).get(0);
+        doctor.setAvailableTimes(template);
+        booked = BenchmarkData.appointments(List.of(doctor), (int) (slotsPerDay * bookedRatio),
+                LocalDate.now().plusDays(1), 7);
+    }
+
+    @Benchmark
+    public List<String> freeSlots() {
+        return DoctorService.freeSlots(template, booked);
+    }
+}
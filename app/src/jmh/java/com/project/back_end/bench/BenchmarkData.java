@@ -0,0 +1,67 @@
+package com.project.back_end.bench;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+/**
+ * Deterministic synthetic data shared by the benchmarks: doctors with an
+ * hourly template between 08:00 and 18:00, patients and a day of appointments.
+ */
+final class BenchmarkData {
+
+    static final String[] SPECIALTIES = {
+            "Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics", "Oncology", "Psychiatry"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<Doctor> doctors(int count, long seed) {
+        Random random = new Random(seed);
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Doctor doctor = new Doctor("Doctor " + i, SPECIALTIES[random.nextInt(SPECIALTIES.length)],
+                    "doctor" + i + "@clinic.com", "password", String.format("%010d", i),
+                    template(random, 2 + random.nextInt(7)));
+            doctor.setId((long) i + 1);
+            doctors.add(doctor);
+        }
+        return doctors;
+    }
+
+    // Sorted, distinct "HH:mm-HH:mm" hours, the format the admin form stores;
+    // most doctors have only mornings or only afternoons
+    static List<String> template(Random random, int slots) {
+        int firstHour = random.nextBoolean() ? 8 : 13;
+        List<String> times = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            LocalTime start = LocalTime.of(Math.min(firstHour + i, 18), 0);
+            times.add(start + "-" + start.plusHours(1));
+        }
+        return times.stream().distinct().toList();
+    }
+
+    static List<Appointment> appointments(List<Doctor> doctors, int perDoctor, LocalDate day, long seed) {
+        Random random = new Random(seed);
+        List<Appointment> appointments = new ArrayList<>();
+        long id = 1;
+        for (Doctor doctor : doctors) {
+            List<String> times = doctor.getAvailableTimes();
+            for (int i = 0; i < Math.min(perDoctor, times.size()); i++) {
+                Patient patient = new Patient("Patient " + random.nextInt(100_000), "patient" + id + "@mail.com",
+                        "password", String.format("%010d", id), id + " Main Street");
+                patient.setId(id);
+                appointments.add(new Appointment(id++, doctor, patient,
+                        day.atTime(LocalTime.parse(times.get(i).split("-")[0])), 0));
+            }
+        }
+        return appointments;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.back_end.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.DoctorService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DoctorFilterBenchmark {
+
+    @Param({ "50", "500", "5000" })
+    public int doctorCount;
+
+    @Param({ "AM", "PM" })
+    public String timePeriod;
+
+    private DoctorService doctorService;
+    private List<Doctor> doctors;
+
+    @Setup
+    public void setUp() {
+        // filterDoctorsByTime(List, String) is pure, no repository is touched
+        doctorService = new DoctorService(null, null, null, null, null, null, null);
+        doctors = BenchmarkData.doctors(doctorCount, 42);
+    }
+
+    @Benchmark
+    public List<Doctor> filterDoctorsByTime() {
+        return doctorService.filterDoctorsByTime(doctors, timePeriod);
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.back_end.bench;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+
+/**
+ * Jackson cost of the list payloads returned by the REST controllers, using
+ * an ObjectMapper configured like Spring MVC's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({ "100", "1000" })
+    public int doctorCount;
+
+    private ObjectMapper objectMapper;
+    private Map<String, List<Doctor>> doctorsPayload;
+    private List<Appointment> appointments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Doctor> doctors = BenchmarkData.doctors(doctorCount, 42);
+        doctorsPayload = Map.of("doctors", doctors);
+        appointments = BenchmarkData.appointments(doctors, 4, LocalDate.now().plusDays(1), 42);
+    }
+
+    @Benchmark
+    public byte[] serializeDoctors() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(doctorsPayload);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.back_end.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.back_end.services.TokenService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // Repositories are only used by validateToken, which hits the database
+        tokenService = new TokenService(null, null, null);
+        ReflectionTestUtils.setField(tokenService, "secret", "$!@#$^%$$$%####$DDCPN0234FCFDPD8670M");
+        token = tokenService.generateToken("doctor42@clinic.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken("doctor42@clinic.com");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return tokenService.extractEmail(token);
+    }
+}
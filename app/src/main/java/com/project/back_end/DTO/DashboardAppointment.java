@@ -0,0 +1,26 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the doctor dashboard: the appointment, the patient details shown
+ * next to it (MySQL) and whether a prescription has been written for it
+ * (MongoDB).
+ *
+ * @param prescribed {@code null} when the prescription store could not be reached
+ */
+public record DashboardAppointment(Long id, LocalDateTime appointmentTime, Integer status,
+                                   Long patientId, String patientName, String patientPhone, String patientEmail,
+                                   Boolean prescribed) {
+
+    // Used by the JPQL constructor expression; prescriptions are merged in afterwards
+    public DashboardAppointment(Long id, LocalDateTime appointmentTime, Integer status,
+                                Long patientId, String patientName, String patientPhone, String patientEmail) {
+        this(id, appointmentTime, status, patientId, patientName, patientPhone, patientEmail, null);
+    }
+
+    public DashboardAppointment withPrescribed(Boolean prescribed) {
+        return new DashboardAppointment(id, appointmentTime, status, patientId, patientName, patientPhone,
+                patientEmail, prescribed);
+    }
+}
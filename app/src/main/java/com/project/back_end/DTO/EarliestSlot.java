@@ -0,0 +1,12 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * A free slot found by the earliest-slot search, with enough of the doctor
+ * to show it and book it.
+ *
+ * @param time start time, "HH:mm" like the availability endpoint
+ */
+public record EarliestSlot(Long doctorId, String doctorName, String specialty, LocalDate date, String time) {
+}
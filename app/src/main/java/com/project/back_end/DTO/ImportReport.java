@@ -0,0 +1,17 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were registered, how many were
+ * not, and why (capped; {@code failed} always counts them all).
+ */
+public record ImportReport(int imported, int failed, List<RowError> errors) {
+
+    /**
+     * @param line     line of the uploaded file (the CSV header is line 1)
+     * @param messages what is wrong with the row, e.g. "email: Invalid email format"
+     */
+    public record RowError(long line, List<String> messages) {
+    }
+}
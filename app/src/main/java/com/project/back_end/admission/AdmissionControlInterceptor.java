@@ -0,0 +1,108 @@
+package com.project.back_end.admission;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for one endpoint group: per-IP and per-principal token
+ * buckets, then a cap on requests in flight. A request that does not get in
+ * is answered with 429 and a Retry-After right away, before it takes a
+ * thread-pool slot for the handler or a JDBC connection.
+ *
+ * Rejections are counted as "http.server.admission.rejected" by group and reason.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private final String group;
+    private final String permitAttribute;
+    private final KeyedRateLimiter perIp;
+    private final KeyedRateLimiter perPrincipal;
+    private final ConcurrencyLimiter concurrency;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlInterceptor(String group, AdmissionProperties.Group config, int maxKeys,
+                                       MeterRegistry meterRegistry) {
+        this.group = group;
+        this.permitAttribute = AdmissionControlInterceptor.class.getName() + "." + group;
+        this.perIp = limiter(config.perIp(), maxKeys);
+        this.perPrincipal = limiter(config.perPrincipal(), maxKeys);
+        this.concurrency = config.maxConcurrent() > 0 ? new ConcurrencyLimiter(config.maxConcurrent()) : null;
+        this.meterRegistry = meterRegistry;
+
+        if (concurrency != null) {
+            Gauge.builder("http.server.admission.inflight", concurrency, ConcurrencyLimiter::inFlight)
+                    .description("Requests in flight per admission group")
+                    .tag("group", group)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static KeyedRateLimiter limiter(AdmissionProperties.Rate rate, int maxKeys) {
+        return rate.enabled() ? new KeyedRateLimiter(rate.perSecond(), rate.burst(), maxKeys) : null;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod)) return true;
+
+        if (perIp != null) {
+            // The client's address, not the proxy's: Tomcat's RemoteIpValve resolves
+            // X-Forwarded-For through the trusted proxies (server.forward-headers-strategy)
+            long wait = perIp.tryAcquire(request.getRemoteAddr());
+            if (wait > 0) return reject(response, "ip_rate", wait);
+        }
+
+        String principal = principal(request);
+        if (perPrincipal != null && principal != null) {
+            long wait = perPrincipal.tryAcquire(principal);
+            if (wait > 0) return reject(response, "principal_rate", wait);
+        }
+
+        if (concurrency != null) {
+            if (!concurrency.tryAcquire()) return reject(response, "concurrency", TimeUnit.SECONDS.toNanos(1));
+            request.setAttribute(permitAttribute, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (request.getAttribute(permitAttribute) != null) {
+            request.removeAttribute(permitAttribute);
+            concurrency.release();
+        }
+    }
+
+    // Endpoints authenticate through a {token} path variable
+    private static String principal(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map<?, ?> map && map.get("token") instanceof String token ? token : null;
+    }
+
+    private boolean reject(HttpServletResponse response, String reason, long waitNanos) throws IOException {
+        meterRegistry.counter("http.server.admission.rejected", "group", group, "reason", reason).increment();
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests, please retry later.\"}");
+        return false;
+    }
+}
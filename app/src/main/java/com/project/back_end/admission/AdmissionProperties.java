@@ -0,0 +1,52 @@
+package com.project.back_end.admission;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Admission control per endpoint group, e.g.
+ * {@code app.admission.groups.login.paths=/doctor/login}.
+ *
+ * @param enabled turns every group off at once
+ * @param maxKeys upper bound on the IP/principal buckets kept per group
+ * @param groups  endpoint groups by name (the name tags the metrics)
+ */
+@ConfigurationProperties("app.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int maxKeys,
+        Map<String, Group> groups) {
+
+    public AdmissionProperties {
+        groups = groups != null ? groups : Map.of();
+    }
+
+    /**
+     * @param paths         request path patterns of the group
+     * @param maxConcurrent requests in flight across the group (0 = unlimited)
+     * @param perIp         token bucket per client IP
+     * @param perPrincipal  token bucket per {token} path variable, where the endpoint has one
+     */
+    public record Group(
+            List<String> paths,
+            @DefaultValue("0") int maxConcurrent,
+            @DefaultValue Rate perIp,
+            @DefaultValue Rate perPrincipal) {
+    }
+
+    /**
+     * @param perSecond sustained requests per second (0 = no limit)
+     * @param burst     requests allowed back to back
+     */
+    public record Rate(
+            @DefaultValue("0") double perSecond,
+            @DefaultValue("1") int burst) {
+
+        public boolean enabled() {
+            return perSecond > 0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests in flight for an endpoint group. Never blocks: a request
+ * over the limit is turned away at once instead of waiting for a thread or a
+ * JDBC connection.
+ */
+public final class ConcurrencyLimiter {
+
+    private final int limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.back_end.admission;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One {@link TokenBucket} per key (client IP, principal), at most {@code maxKeys}
+ * of them. Full buckets carry no state, so they are swept out once the map is
+ * full; while it stays full, new keys share a single overflow bucket.
+ *
+ * The sweep is O(n), so it runs at most once per refill time of a bucket
+ * (burst / permitsPerSecond): no bucket can turn idle any sooner.
+ */
+public final class KeyedRateLimiter {
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // Slots taken in buckets, reserved before the insert so the cap holds under races
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong lastSweep;
+    private final TokenBucket overflow;
+
+    public KeyedRateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+        this.sweepIntervalNanos = (long) (1_000_000_000L * burst / permitsPerSecond);
+        long now = System.nanoTime();
+        this.lastSweep = new AtomicLong(now - sweepIntervalNanos);
+        this.overflow = new TokenBucket(permitsPerSecond, burst, now);
+    }
+
+    /** @return 0 if admitted, otherwise the nanoseconds until {@code key} gets a token */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = add(key, now);
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    private TokenBucket add(String key, long now) {
+        if (size.get() >= maxKeys) {
+            sweep(now);
+        }
+        if (size.incrementAndGet() > maxKeys) {
+            size.decrementAndGet();
+            return overflow;
+        }
+        TokenBucket bucket = new TokenBucket(permitsPerSecond, burst, now);
+        TokenBucket existing = buckets.putIfAbsent(key, bucket);
+        if (existing != null) {
+            size.decrementAndGet();
+            return existing;
+        }
+        return bucket;
+    }
+
+    // One thread per interval wins the CAS and sweeps; the others carry on
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < sweepIntervalNanos || !lastSweep.compareAndSet(last, now)) return;
+
+        for (Iterator<TokenBucket> it = buckets.values().iterator(); it.hasNext(); ) {
+            if (it.next().isIdle(now)) {
+                it.remove();
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
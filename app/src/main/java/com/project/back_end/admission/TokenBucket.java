@@ -0,0 +1,54 @@
+package com.project.back_end.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm: the
+ * whole bucket is one {@link AtomicLong} holding the theoretical arrival time
+ * of the next request, advanced with a CAS per admitted request.
+ *
+ * Allows {@code burst} back-to-back requests, refilled at {@code permitsPerSecond}.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System.nanoTime());
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, long now) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0 and burst >= 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until a token frees up
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** True once the bucket has refilled completely, i.e. it holds no state worth keeping. */
+    boolean isIdle(long now) {
+        return theoreticalArrival.get() - now <= 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.back_end.cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.project.back_end.datasource.ReplicaRoutingDataSource;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.DoctorSlotsChangedEvent;
+import com.project.back_end.util.SingleFlight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Free slots per doctor and day.
+ *
+ * An entry is dropped as soon as a booking, move or cancellation on that day
+ * commits, here or on another node (see
+ * {@link com.project.back_end.invalidation.InvalidationBus}), and a doctor
+ * write drops all of that doctor's days once the new slots are in. Days are
+ * "HH:mm" start times, whether read from slots or from the template. The
+ * TTL only bounds how long an entry can outlive a lost invalidation.
+ */
+@Component
+public class AvailabilityCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // One token per load in flight; evicting the key drops it, so a load that raced the eviction is returned but not kept
+    private final Map<String, Object> loading = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final SingleFlight<String, List<String>> loads;
+
+    public AvailabilityCache(MeterRegistry meterRegistry,
+                             @Value("${app.availability-cache.ttl:30s}") Duration ttl,
+                             @Value("${app.availability-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("clinic.availability.cache", "result", "hit");
+        this.misses = meterRegistry.counter("clinic.availability.cache", "result", "miss");
+        this.loads = new SingleFlight<>("availability", meterRegistry);
+    }
+
+    public List<String> get(Long doctorId, LocalDate date, Supplier<List<String>> loader) {
+        String key = key(doctorId, date);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+            hits.increment();
+            return cached.slots();
+        }
+        misses.increment();
+
+        return loads.run(key, () -> {
+            Object token = new Object();
+            loading.put(key, token);
+            try {
+                // Misses follow bookings: a lagging replica would pin the slot that was just taken
+                List<String> slots = List.copyOf(ReplicaRoutingDataSource.onPrimary(loader));
+                if (entries.size() >= maxEntries) {
+                    long now = System.nanoTime();
+                    entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+                }
+                Entry entry = new Entry(slots, System.nanoTime() + ttlNanos);
+                if (entries.size() < maxEntries) {
+                    entries.put(key, entry);
+                }
+                // Checked after the put: an eviction either took the token first or removes the entry itself
+                if (!loading.remove(key, token)) {
+                    entries.remove(key, entry);
+                }
+                return slots;
+            } finally {
+                loading.remove(key, token);
+            }
+        });
+    }
+
+    public void evict(Long doctorId, LocalDate date) {
+        String key = key(doctorId, date);
+        loading.remove(key);
+        entries.remove(key);
+    }
+
+    public void evictDoctor(Long doctorId) {
+        String prefix = doctorId + "/";
+        loading.keySet().removeIf(key -> key.startsWith(prefix));
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public void clear() {
+        loading.clear();
+        entries.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        // Published without a doctor only for status changes, which free no slot
+        if (event.doctorId() != null) {
+            evict(event.doctorId(), event.date());
+        }
+    }
+
+    // Published once the doctor's new slots have committed
+    @EventListener
+    public void onSlotsChanged(DoctorSlotsChangedEvent event) {
+        if (event.doctorId() == null) {
+            clear();
+        } else {
+            evictDoctor(event.doctorId());
+        }
+    }
+
+    private static String key(Long doctorId, LocalDate date) {
+        return doctorId + "/" + date;
+    }
+
+    private record Entry(List<String> slots, long expiresAt) {
+    }
+}
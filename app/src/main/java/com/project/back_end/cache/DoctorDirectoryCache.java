@@ -0,0 +1,248 @@
+package com.project.back_end.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.config.CborConfig;
+import com.project.back_end.datasource.ReplicaRoutingDataSource;
+import com.project.back_end.events.DoctorDirectoryChangedEvent;
+import com.project.back_end.util.SingleFlight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serialized-response cache for the doctor directory.
+ *
+ * Each entry holds the final {"doctors": [...]} bytes in JSON and in CBOR
+ * (for clients that send Accept: application/cbor), each with a precomputed
+ * gzip copy, so a hit costs neither a query, nor Jackson, nor compression:
+ * the bytes are written straight to the servlet output stream.
+ *
+ * Keys are prefixed with the directory version, which is bumped after every
+ * committed doctor write. Entries built from a version that has since moved
+ * on are simply never looked up again.
+ */
+@Component
+public class DoctorDirectoryCache {
+
+    // One entity-tag of an If-None-Match list; commas may appear inside the quotes
+    private static final Pattern ENTITY_TAG = Pattern.compile("(?:W/)?\"([^\"]*)\"");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final int maxEntries;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    // A stampede of misses for one key (e.g. right after an invalidation) loads it once
+    private final SingleFlight<String, CachedResponse> loads;
+
+    public DoctorDirectoryCache(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.doctor-cache.max-entries:256}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = CborConfig.cborMapper(objectMapper);
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("clinic.directory.cache", "result", "hit");
+        this.misses = meterRegistry.counter("clinic.directory.cache", "result", "miss");
+        this.loads = new SingleFlight<>("doctor-directory", meterRegistry);
+    }
+
+    /**
+     * Returns the cached response for {@code key}, loading and serializing
+     * the doctors (entities, or sparse-fieldset maps) on a miss.
+     */
+    public CachedResponse get(String key, Supplier<? extends List<?>> loader) {
+        long current = version.get();
+        String versionedKey = current + ":" + key;
+
+        CachedResponse cached = entries.get(versionedKey);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        return loads.run(versionedKey, () -> {
+            // Misses follow writes: load from the primary so a lagging replica
+            // cannot pin the old directory under the new version
+            CachedResponse loaded = serialize(ReplicaRoutingDataSource.onPrimary(loader));
+            // Filter keys are user-controlled, so the map is bounded; past the
+            // limit uncommon results are served uncached until the next change
+            if (entries.size() < maxEntries && version.get() == current) {
+                entries.putIfAbsent(versionedKey, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Builds a key from request parameters: each part is length-prefixed and an
+     * absent one is "-", so no two parameter sets share a key (a missing name is
+     * not the name "null", and "a|b" + "c" is not "a" + "b|c").
+     */
+    public static String key(String prefix, String... parts) {
+        StringBuilder key = new StringBuilder(prefix).append(':');
+        for (String part : parts) {
+            if (part == null) {
+                key.append('-');
+            } else {
+                key.append(part.length()).append('|').append(part);
+            }
+            key.append(';');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Writes the response as CBOR when the client prefers it, JSON otherwise,
+     * gzip-encoded when the client accepts it.
+     */
+    public void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        boolean cbor = prefersCbor(request.getHeader(HttpHeaders.ACCEPT));
+        Body variant = cbor ? cached.cbor() : cached.json();
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // Each encoding is a representation of its own, with its own strong tag
+        String etag = gzip ? variant.gzipEtag() : variant.etag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        if (noneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = variant.bytes();
+        if (gzip) {
+            body = variant.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cbor ? MediaType.APPLICATION_CBOR_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    private CachedResponse serialize(List<?> doctors) {
+        try {
+            Map<String, List<?>> payload = Map.of("doctors", doctors);
+            return new CachedResponse(body(objectMapper.writeValueAsBytes(payload)),
+                    body(cborMapper.writeValueAsBytes(payload)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Body body(byte[] bytes) {
+        String etag = etag(bytes);
+        return new Body(bytes, gzip(bytes), etag, etag.substring(0, etag.length() - 1) + "-gzip\"");
+    }
+
+    // If-None-Match per RFC 9110 13.1.2: "*" or a list of entity-tags, compared weakly
+    static boolean noneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        if (ifNoneMatch.trim().equals("*")) return true;
+        String opaque = etag.substring(1, etag.length() - 1);
+        Matcher tags = ENTITY_TAG.matcher(ifNoneMatch);
+        while (tags.find()) {
+            if (tags.group(1).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    // CBOR only when asked for at least as strongly as JSON; */* counts as JSON
+    static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        double cbor = 0;
+        double json = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    cbor = Math.max(cbor, type.getQualityValue());
+                } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, type.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return cbor > 0 && cbor >= json;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        // Compressed once per version, so the slowest level is affordable
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Content-based, so every node hands out the same tag for the same directory,
+    // and the JSON and CBOR representations get different tags
+    private static String etag(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(bytes.length) + "\"";
+    }
+
+    public record CachedResponse(Body json, Body cbor) {
+    }
+
+    public record Body(byte[] bytes, byte[] gzip, String etag, String gzipEtag) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.project.back_end.cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.project.back_end.datasource.ReplicaRoutingDataSource;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.util.TrigramIndex;
+
+/**
+ * Patient-name search over one doctor's day, for the search-as-you-type box
+ * of the doctor's appointment list.
+ *
+ * The first search of a day reads its (appointment id, patient name) pairs
+ * once and builds a {@link TrigramIndex}; every further keystroke is answered
+ * from memory and only the matching appointments are read, by primary key.
+ * A search that matches nothing costs no query at all.
+ *
+ * Entries are dropped when an appointment of that day changes, here or on
+ * another node (see {@link com.project.back_end.invalidation.InvalidationBus}).
+ * Patients cannot be renamed; the TTL bounds anything else.
+ */
+@Component
+public class PatientNameIndex {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // One token per build in flight; evicting the key drops it, so a build that raced the eviction is used but not kept
+    private final Map<String, Object> loading = new ConcurrentHashMap<>();
+
+    public PatientNameIndex(@Value("${app.patient-search.ttl:5m}") Duration ttl,
+                            @Value("${app.patient-search.max-entries:2000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Ids of the day's appointments whose patient name contains {@code name}.
+     *
+     * @param loader the day's appointments as {id, patient name} rows, read on a miss
+     */
+    public List<Long> search(Long doctorId, LocalDate date, String name, Supplier<List<Object[]>> loader) {
+        String key = key(doctorId, date);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+            return cached.index().search(name);
+        }
+
+        Object token = new Object();
+        loading.put(key, token);
+        try {
+            // Built right after a booking: a lagging replica would leave the new patient out
+            List<Object[]> rows = ReplicaRoutingDataSource.onPrimary(loader);
+            List<Long> ids = new ArrayList<>(rows.size());
+            List<String> names = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add((Long) row[0]);
+                names.add((String) row[1]);
+            }
+            TrigramIndex<Long> index = TrigramIndex.of(ids, names);
+
+            if (entries.size() >= maxEntries) {
+                long now = System.nanoTime();
+                entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+            }
+            Entry entry = new Entry(index, System.nanoTime() + ttlNanos);
+            if (entries.size() < maxEntries) {
+                entries.put(key, entry);
+            }
+            // Checked after the put: an eviction either took the token first or removes the entry itself
+            if (!loading.remove(key, token)) {
+                entries.remove(key, entry);
+            }
+            return index.search(name);
+        } finally {
+            loading.remove(key, token);
+        }
+    }
+
+    public void evict(Long doctorId, LocalDate date) {
+        String key = key(doctorId, date);
+        loading.remove(key);
+        entries.remove(key);
+    }
+
+    public void clear() {
+        loading.clear();
+        entries.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        // Status changes (no doctor) do not change who is on the day
+        if (event.doctorId() != null) {
+            evict(event.doctorId(), event.date());
+        }
+    }
+
+    private static String key(Long doctorId, LocalDate date) {
+        return doctorId + "/" + date;
+    }
+
+    private record Entry(TrigramIndex<Long> index, long expiresAt) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.project.back_end.invalidation.InvalidationTransport;
+import com.project.back_end.invalidation.LoopbackInvalidationTransport;
+import com.project.back_end.invalidation.MongoInvalidationTransport;
+
+/**
+ * Transport of the cache invalidation bus (see
+ * {@link com.project.back_end.invalidation.InvalidationBus}).
+ *
+ * app.cache-bus.transport=loopback (the default) keeps invalidations on this
+ * node and is only correct for a single instance. Deployments with more than
+ * one instance behind the load balancer set it to "mongo".
+ */
+@Configuration(proxyBeanMethods = false)
+public class CacheBusConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache-bus", name = "transport", havingValue = "loopback", matchIfMissing = true)
+    public InvalidationTransport loopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.cache-bus", name = "transport", havingValue = "mongo")
+    public InvalidationTransport mongoInvalidationTransport(
+            MongoTemplate mongoTemplate,
+            @Value("${app.cache-bus.collection:cache_invalidations}") String collection,
+            @Value("${app.cache-bus.capped-size:1048576}") long cappedSize) {
+        return new MongoInvalidationTransport(mongoTemplate, collection, cappedSize);
+    }
+}
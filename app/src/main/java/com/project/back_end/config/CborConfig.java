@@ -0,0 +1,29 @@
+package com.project.back_end.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * CBOR (application/cbor) as an alternative response format for clients that
+ * ask for it with the Accept header; JSON stays the default.
+ *
+ * The converter replaces Spring MVC's default CBOR converter in place, so it
+ * still comes after JSON, and it uses a copy of Boot's ObjectMapper so both
+ * formats carry the same properties (date format, naming, inclusion).
+ */
+@Configuration(proxyBeanMethods = false)
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapper));
+    }
+
+    public static ObjectMapper cborMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory());
+    }
+}
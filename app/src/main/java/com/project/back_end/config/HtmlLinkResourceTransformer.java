@@ -0,0 +1,59 @@
+package com.project.back_end.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceTransformerSupport;
+import org.springframework.web.servlet.resource.TransformedResource;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Rewrites the script, stylesheet and image links of the static HTML pages
+ * (index.html, pages/*.html) to their fingerprinted URLs, the same way
+ * Thymeleaf's {@code @{...}} links are rewritten for the dashboards.
+ *
+ * Links to other pages and external URLs are left alone, as are links that
+ * do not resolve to a static resource.
+ */
+public class HtmlLinkResourceTransformer extends ResourceTransformerSupport {
+
+    private static final Pattern LINK = Pattern.compile(
+            "(<(?:script|link|img)\\b[^>]*?\\b(?:src|href)=\")([^\"]+)(\")", Pattern.CASE_INSENSITIVE);
+
+    @Override
+    @NonNull
+    public Resource transform(@NonNull HttpServletRequest request, @NonNull Resource resource,
+                              @NonNull ResourceTransformerChain transformerChain) throws IOException {
+        resource = transformerChain.transform(request, resource);
+        // Precompressed copies are named x.html.gz / x.html.br, so they are skipped here too
+        if (!"html".equals(StringUtils.getFilenameExtension(resource.getFilename()))) {
+            return resource;
+        }
+
+        String content = resource.getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = LINK.matcher(content);
+        StringBuilder rewritten = new StringBuilder(content.length() + 256);
+        while (matcher.find()) {
+            String link = matcher.group(2);
+            String versioned = isAsset(link)
+                    ? resolveUrlPath(toAbsolutePath(link, request), request, resource, transformerChain)
+                    : null;
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(
+                    matcher.group(1) + (versioned != null ? versioned : link) + matcher.group(3)));
+        }
+        matcher.appendTail(rewritten);
+        return new TransformedResource(resource, rewritten.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isAsset(String link) {
+        return !link.contains(":") && !link.startsWith("//") && !link.startsWith("#")
+                && !link.endsWith(".html");
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Metrics wiring on top of the actuator defaults.
+ *
+ * - http.server.requests: one timer per controller endpoint (auto-configured)
+ * - clinic.service: one timer per method of services annotated with @Timed
+ * - spring.data.repository.invocations: one timer per repository method,
+ *   tagged with the datastore it hits (mysql / mongodb)
+ * - hikaricp.connections.* and mongodb.driver.pool.*: pool gauges (auto-configured)
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on Spring beans (requires spring-boot-starter-aop)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        return new DefaultRepositoryTagsProvider() {
+            @Override
+            public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+                return Tags.of(super.repositoryTags(invocation))
+                        .and("datastore", datastoreOf(invocation.getRepositoryInterface()));
+            }
+        };
+    }
+
+    static String datastoreOf(Class<?> repositoryInterface) {
+        return MongoRepository.class.isAssignableFrom(repositoryInterface) ? "mongodb" : "mysql";
+    }
+}
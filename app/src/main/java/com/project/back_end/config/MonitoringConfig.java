@@ -0,0 +1,48 @@
+package com.project.back_end.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.project.back_end.monitoring.QueryBudgetProperties;
+import com.project.back_end.monitoring.QueryCountInspector;
+import com.project.back_end.monitoring.RepositoryCallContext;
+import com.project.back_end.monitoring.SlowQueryDataSourcePostProcessor;
+import com.project.back_end.monitoring.SlowQueryListener;
+import com.project.back_end.monitoring.SlowQueryProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties({ QueryBudgetProperties.class, SlowQueryProperties.class })
+public class MonitoringConfig {
+
+    // Count every statement Hibernate prepares (see QueryCounter)
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    // Track the repository method behind each statement (used by the slow-query log)
+    @Bean
+    public static RepositoryCallContext.RegistrationPostProcessor repositoryCallContextPostProcessor() {
+        return new RepositoryCallContext.RegistrationPostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SlowQueryListener slowQueryListener(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+        return new SlowQueryListener(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static SlowQueryDataSourcePostProcessor slowQueryDataSourcePostProcessor(
+            ObjectProvider<SlowQueryListener> slowQueryListener) {
+        return new SlowQueryDataSourcePostProcessor(slowQueryListener);
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs (@Scheduled), e.g. TimeSlotService extending the slot
+ * horizon. Every instance runs them; the jobs are written to be idempotent.
+ * app.scheduling.enabled=false turns them off, e.g. for one-off tools.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.scheduling", name = "enabled", matchIfMissing = true)
+@EnableScheduling
+public class SchedulingConfig {
+}
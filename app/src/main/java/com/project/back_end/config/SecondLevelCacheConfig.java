@@ -0,0 +1,54 @@
+package com.project.back_end.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Hibernate second-level cache for the reference data (Doctor, Admin, their
+ * natural ids and the cacheable queries), backed by an in-process Ehcache
+ * with the bounded regions declared in ehcache.xml.
+ *
+ * Regions use READ_WRITE, so entity and collection entries are updated or
+ * evicted when the DoctorService transaction commits and cached queries are
+ * invalidated by any write to their tables.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() throws IOException {
+        return Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider")
+                .getCacheManager(new ClassPathResource("ehcache.xml").getURI(), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // A region missing from ehcache.xml would otherwise be created unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // cache.gets / cache.puts / cache.evictions per region
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String name : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name), List.of());
+            }
+        };
+    }
+}
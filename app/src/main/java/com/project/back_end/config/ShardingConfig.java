@@ -0,0 +1,124 @@
+package com.project.back_end.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.NonNull;
+
+import com.project.back_end.sharding.ShardMap;
+import com.project.back_end.sharding.ShardProperties;
+import com.project.back_end.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Appointment sharding, active when app.sharding.shards[0].url is set.
+ *
+ * The home shard is spring.datasource.*; every listed shard gets its own pool,
+ * registered as a bean named "&lt;name&gt;ShardDataSource" so that it is
+ * instrumented and closed like any other pool. JPA sees one routing DataSource
+ * in front of all of them (see {@link com.project.back_end.sharding.AppointmentShards}).
+ *
+ * Doctors, patients and admins are written on the home shard and must be
+ * replicated to every other shard, so that a doctor's appointments can join
+ * them locally. Hibernate's ddl-auto only reaches the home shard.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.sharding", name = "shards[0].url")
+@EnableConfigurationProperties(ShardProperties.class)
+@Import(ShardingConfig.ShardPools.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardMap shardMap(ShardProperties properties) {
+        List<String> names = Stream.concat(Stream.of(properties.home()),
+                properties.shards().stream().map(ShardProperties.Shard::name)).toList();
+        return new ShardMap(names, properties.buckets(), properties.bucketMap(), properties.idRange());
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource homeDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("home");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(BeanFactory beanFactory, ShardProperties properties, Environment environment) {
+        if (environment.containsProperty("app.datasource.replica.url")) {
+            throw new IllegalStateException("app.sharding cannot be combined with app.datasource.replica");
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put(properties.home(), beanFactory.getBean("homeDataSource", DataSource.class));
+        for (ShardProperties.Shard shard : properties.shards()) {
+            shards.put(shard.name(), beanFactory.getBean(ShardPools.beanName(shard), DataSource.class));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards, properties.home());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // The number of shards is only known from the environment, hence a registrar
+    static class ShardPools implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+        private Environment environment;
+
+        @Override
+        public void setEnvironment(@NonNull Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void registerBeanDefinitions(@NonNull AnnotationMetadata metadata,
+                                            @NonNull BeanDefinitionRegistry registry) {
+            ShardProperties properties = Binder.get(environment)
+                    .bindOrCreate("app.sharding", ShardProperties.class);
+            for (ShardProperties.Shard shard : properties.shards()) {
+                RootBeanDefinition definition = new RootBeanDefinition(HikariDataSource.class,
+                        () -> pool(shard, properties.poolSize()));
+                definition.setDestroyMethodName(AbstractBeanDefinition.INFER_METHOD);
+                registry.registerBeanDefinition(beanName(shard), definition);
+            }
+        }
+
+        private static HikariDataSource pool(ShardProperties.Shard shard, int poolSize) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .build();
+            dataSource.setPoolName(shard.name());
+            dataSource.setMaximumPoolSize(poolSize);
+            return dataSource;
+        }
+
+        static String beanName(ShardProperties.Shard shard) {
+            return shard.name() + "ShardDataSource";
+        }
+    }
+}
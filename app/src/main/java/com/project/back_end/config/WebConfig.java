@@ -1,15 +1,58 @@
 package com.project.back_end.config;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
 import org.springframework.lang.NonNull; 
 
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import com.project.back_end.admission.AdmissionControlInterceptor;
+import com.project.back_end.admission.AdmissionProperties;
+import com.project.back_end.monitoring.QueryBudgetInterceptor;
+import com.project.back_end.monitoring.QueryBudgetProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
 public class WebConfig implements WebMvcConfigurer {
 
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+    private final QueryBudgetProperties queryBudgetProperties;
+    private final WebProperties webProperties;
+    private final AdmissionProperties admissionProperties;
+    private final MeterRegistry meterRegistry;
+
+    public WebConfig(QueryBudgetInterceptor queryBudgetInterceptor, QueryBudgetProperties queryBudgetProperties,
+                     WebProperties webProperties, AdmissionProperties admissionProperties,
+                     MeterRegistry meterRegistry) {
+        this.queryBudgetInterceptor = queryBudgetInterceptor;
+        this.queryBudgetProperties = queryBudgetProperties;
+        this.webProperties = webProperties;
+        this.admissionProperties = admissionProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         // Allow CORS for all endpoints
@@ -18,4 +61,79 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE")  // Specify allowed methods
                 .allowedHeaders("*");  // You can restrict headers if needed
     }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Admission control first, so rejected requests cost as little as possible
+        if (admissionProperties.enabled()) {
+            admissionProperties.groups().forEach((name, group) -> {
+                if (group.paths() != null && !group.paths().isEmpty()) {
+                    registry.addInterceptor(new AdmissionControlInterceptor(name, group,
+                                    admissionProperties.maxKeys(), meterRegistry))
+                            .addPathPatterns(group.paths());
+                }
+            });
+        }
+
+        // Per-request SQL statement counting and budget warnings
+        if (queryBudgetProperties.enabled()) {
+            registry.addInterceptor(queryBudgetInterceptor);
+        }
+    }
+
+    @Override
+    public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
+        String[] locations = webProperties.getResources().getStaticLocations();
+        String version = fingerprint(locations);
+
+        // Fingerprinted copy of the static tree (/v-<hash>/js/render.js): the content behind
+        // these URLs never changes, so browsers keep it for a year without revalidating.
+        // The whole tree shares one prefix so relative ES module imports stay inside it.
+        registry.addResourceHandler("/" + version + "/**")
+                .addResourceLocations(locations)
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        // Plain URLs (pages, bookmarks, links built in JS) are revalidated; links in the
+        // Thymeleaf templates and static pages are rewritten to the fingerprinted copy
+        registry.addResourceHandler("/**")
+                .addResourceLocations(locations)
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addFixedVersionStrategy(version, "/**"))
+                .addTransformer(new HtmlLinkResourceTransformer());
+    }
+
+    // "v-" + hash over every static file (path and content), precompressed copies excluded
+    static String fingerprint(String[] locations) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        try {
+            Map<String, Resource> files = new TreeMap<>();
+            for (String location : locations) {
+                // Boot's default locations mostly do not exist
+                Resource base = resolver.getResource(location);
+                if (!base.exists()) continue;
+                String root = base.getURL().toString();
+                for (Resource resource : resolver.getResources(location + "**/*")) {
+                    String path = resource.getURL().toString().substring(root.length());
+                    if (resource.isReadable() && !path.endsWith(".gz") && !path.endsWith(".br")) {
+                        files.putIfAbsent(path, resource);
+                    }
+                }
+            }
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Resource> file : files.entrySet()) {
+                digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update(file.getValue().getContentAsByteArray());
+            }
+            return "v-" + HexFormat.of().formatHex(digest.digest()).substring(0, 12);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
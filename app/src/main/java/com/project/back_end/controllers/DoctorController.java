@@ -1,36 +1,59 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.cache.AvailabilityCache;
+import com.project.back_end.cache.DoctorDirectoryCache;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.push.AppointmentStreamHub;
+import com.project.back_end.repo.DoctorFieldsRepository;
+import com.project.back_end.services.DoctorDashboardService;
 import com.project.back_end.services.DoctorService;
 import com.project.back_end.services.Service;
+import com.project.back_end.util.SparseFields;
 //import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 import java.sql.Date;
 import java.time.LocalDate;
 //import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController // 1. REST API Controller
 @RequestMapping("${api.path}doctor") // e.g., /api/doctor
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final DoctorDashboardService dashboardService;
     private final Service service;
+    private final DoctorDirectoryCache directoryCache;
+    private final AppointmentStreamHub appointmentStreams;
+    private final AvailabilityCache availabilityCache;
 
     // 2. Constructor injection
     //@Autowired
-    public DoctorController(DoctorService doctorService, Service service) {
+    public DoctorController(DoctorService doctorService, DoctorDashboardService dashboardService, Service service,
+                            DoctorDirectoryCache directoryCache, AppointmentStreamHub appointmentStreams,
+                            AvailabilityCache availabilityCache) {
         this.doctorService = doctorService;
+        this.dashboardService = dashboardService;
         this.service = service;
+        this.directoryCache = directoryCache;
+        this.appointmentStreams = appointmentStreams;
+        this.availabilityCache = availabilityCache;
     }
 
-    // 3. Get doctor availability
+    // 3. Get doctor availability (cached per doctor and day, see AvailabilityCache)
     @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
     public ResponseEntity<?> getDoctorAvailability(
             @PathVariable String user,
@@ -42,15 +65,30 @@ public class DoctorController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token.");
         }
 
-        List<?> availableSlots = doctorService.getDoctorAvailability(doctorId, Date.valueOf(date));
+        List<?> availableSlots = availabilityCache.get(doctorId, date,
+                () -> doctorService.getDoctorAvailability(doctorId, Date.valueOf(date)));
         return ResponseEntity.ok(Map.of("availableSlots", availableSlots));
     }
 
-    // 4. Get all doctors
+    // 4. Get all doctors (pre-serialized, see DoctorDirectoryCache);
+    //    ?fields=id,name,specialty reads and returns only those properties
     @GetMapping("/all")
-    public ResponseEntity<?> getDoctor() {
-        List<Doctor> doctors = doctorService.getDoctors();
-        return ResponseEntity.ok(Map.of("doctors", doctors));
+    public void getDoctor(@RequestParam(required = false) String fields,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Set<String> selected;
+        try {
+            selected = SparseFields.parse(fields, DoctorFieldsRepository.FIELDS);
+        } catch (IllegalArgumentException e) {
+            badRequest(response, e.getMessage());
+            return;
+        }
+
+        if (selected == null) {
+            directoryCache.write(directoryCache.get("all", doctorService::getDoctors), request, response);
+        } else {
+            directoryCache.write(directoryCache.get("all?fields=" + String.join(",", selected),
+                    () -> doctorService.getDoctorFields(selected, null, null, null)), request, response);
+        }
     }
 
     // 5. Save a new doctor (admin-only)
@@ -106,14 +144,102 @@ public class DoctorController {
         };
     }
 
-    // 9. Filter doctors (by name, time, specialty)
+    // 9. Filter doctors (by name, time, specialty), pre-serialized per parameter combination;
+    //    ?fields= as for /all
     @GetMapping("/filter")
-    public ResponseEntity<?> filterDoctor(
+    public void filterDoctor(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String time,
-            @RequestParam(required = false) String speciality
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) String fields,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Set<String> selected;
+        try {
+            selected = SparseFields.parse(fields, DoctorFieldsRepository.FIELDS);
+        } catch (IllegalArgumentException e) {
+            badRequest(response, e.getMessage());
+            return;
+        }
+
+        String key = DoctorDirectoryCache.key("filter", name, time, speciality);
+        if (selected == null) {
+            directoryCache.write(directoryCache.get(key, () -> service.filterDoctor(name, speciality, time)),
+                    request, response);
+        } else {
+            directoryCache.write(directoryCache.get(key + "?fields=" + String.join(",", selected),
+                    () -> doctorService.getDoctorFields(selected, name, speciality, time)), request, response);
+        }
+    }
+
+    // 10. Live appointment changes for the doctor's dashboard (server-sent events)
+    @GetMapping(value = "/appointments/stream/{date}/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    // Typed body so the emitter is recognised; EventSource only looks at the status on failure
+    public ResponseEntity<SseEmitter> streamAppointments(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @PathVariable String token
+    ) {
+        Long doctorId = doctorService.resolveDoctorId(token);
+        if (doctorId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(appointmentStreams.subscribe(doctorId, date));
+    }
+
+    // 11. Everything the doctor dashboard shows for one day, in one call ("null" = no name filter);
+    //     ?fields=id,appointmentTime,patientName reads and returns only those properties
+    @GetMapping("/dashboard/{date}/{patientName}/{token}")
+    public ResponseEntity<?> getDashboard(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @PathVariable String patientName,
+            @PathVariable String token,
+            @RequestParam(required = false) String fields
     ) {
-        List<Doctor> doctors = service.filterDoctor(name, speciality, time);
-        return ResponseEntity.ok(Map.of("doctors", doctors));
+        Long doctorId = doctorService.resolveDoctorId(token);
+        if (doctorId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token.");
+        }
+
+        Set<String> selected;
+        try {
+            selected = SparseFields.parse(fields, DoctorDashboardService.FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        try {
+            String name = "null".equals(patientName) ? null : patientName;
+            return ResponseEntity.ok(Map.of(
+                    "doctorId", doctorId,
+                    "date", date,
+                    "appointments", selected == null
+                            ? dashboardService.getDay(doctorId, date, name)
+                            : dashboardService.getDay(doctorId, date, name, selected)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error while loading the dashboard.");
+        }
+    }
+
+    // 12. The earliest free slots across all doctors of a specialty ("AM", "PM" or "all")
+    @GetMapping("/earliest/{user}/{specialty}/{time}/{token}")
+    public ResponseEntity<?> getEarliestSlots(
+            @PathVariable String user,
+            @PathVariable String specialty,
+            @PathVariable String time,
+            @PathVariable String token,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        if (!doctorService.isTokenFor(token, user)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token.");
+        }
+        return ResponseEntity.ok(Map.of("slots", doctorService.findEarliestSlots(specialty, time, limit)));
+    }
+
+    private static void badRequest(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(message);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.services.BulkImportService;
+import com.project.back_end.services.TokenService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+
+@RestController // 1. REST controller for clinic onboarding
+@RequestMapping("${api.path}import") // e.g. /api/import
+public class ImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BulkImportService bulkImportService;
+    private final TokenService tokenService;
+
+    // 2. Constructor injection
+    public ImportController(BulkImportService bulkImportService, TokenService tokenService) {
+        this.bulkImportService = bulkImportService;
+        this.tokenService = tokenService;
+    }
+
+    // 3. Register doctors in bulk (admin-only): CSV with a header row, or one JSON doctor per line.
+    //    The body is streamed, never held in memory; the reply is a per-row error report
+    @PostMapping(value = "/doctors/{token}", consumes = { "text/csv", NDJSON })
+    public ResponseEntity<?> importDoctors(@PathVariable String token, HttpServletRequest request) throws IOException {
+        if (tokenService.resolveAdmin(token) == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized access.");
+        }
+        return ResponseEntity.ok(bulkImportService.importDoctors(request.getInputStream(), format(request)));
+    }
+
+    // 4. Register patients in bulk (admin-only), same formats
+    @PostMapping(value = "/patients/{token}", consumes = { "text/csv", NDJSON })
+    public ResponseEntity<?> importPatients(@PathVariable String token, HttpServletRequest request) throws IOException {
+        if (tokenService.resolveAdmin(token) == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized access.");
+        }
+        return ResponseEntity.ok(bulkImportService.importPatients(request.getInputStream(), format(request)));
+    }
+
+    private static BulkImportService.Format format(HttpServletRequest request) {
+        return MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? BulkImportService.Format.CSV
+                : BulkImportService.Format.NDJSON;
+    }
+}
@@ -0,0 +1,39 @@
+package com.project.back_end.controllers;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * String bodies (the controllers' error messages) go through the String
+ * converter, which accepts any media type: for a client that prefers CBOR it
+ * would label plain text as application/cbor. Those are sent as text/plain.
+ */
+@RestControllerAdvice
+public class PlainTextStrings implements ResponseBodyAdvice<Object> {
+
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return StringHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        // The converter keeps a Content-Type that is already set
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(selectedContentType)) {
+            response.getHeaders().setContentType(TEXT_UTF8);
+        }
+        return body;
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.idempotency.IdempotencyStore;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.PrescriptionService;
@@ -16,28 +17,37 @@ public class PrescriptionController {
     private final PrescriptionService prescriptionService;
     private final AppointmentService appointmentService;
     private final Service service;
+    private final IdempotencyStore idempotencyStore;
 
     // 2. Constructor injection
     //@Autowired
     public PrescriptionController(PrescriptionService prescriptionService,
                                   AppointmentService appointmentService,
-                                  Service service) {
+                                  Service service,
+                                  IdempotencyStore idempotencyStore) {
         this.prescriptionService = prescriptionService;
         this.appointmentService = appointmentService;
         this.service = service;
+        this.idempotencyStore = idempotencyStore;
     }
 
-    // 3. Save prescription for an appointment
+    // 3. Save prescription for an appointment. A retry with the same Idempotency-Key and token
+    //    gets the first response back without touching MySQL or MongoDB; the same key with another
+    //    body is a 422 (see IdempotencyStore)
     @PostMapping("/save/{token}")
-    public ResponseEntity<?> savePrescription(@RequestBody Prescription prescription, @PathVariable String token) {
-        if (!service.validateToken(token, "doctor")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token.");
-        }
-
-        // Update appointment status (e.g., to "1" meaning 'Completed')
-        appointmentService.changeAppointmentStatus(prescription.getAppointmentId(), 1);
-
-        return prescriptionService.savePrescription(prescription);
+    public ResponseEntity<?> savePrescription(@RequestBody Prescription prescription, @PathVariable String token,
+                                              @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+                                              String idempotencyKey) {
+        return idempotencyStore.execute("prescription/save/" + token, idempotencyKey, prescription, () -> {
+            if (!service.validateToken(token, "doctor")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token.");
+            }
+
+            // Update appointment status (e.g., to "1" meaning 'Completed')
+            appointmentService.changeAppointmentStatus(prescription.getAppointmentId(), 1);
+
+            return prescriptionService.savePrescription(prescription);
+        });
     }
 
     // 4. Get prescription by appointment ID
@@ -0,0 +1,80 @@
+package com.project.back_end.datasource;
+
+import java.time.Duration;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps a client's reads on the primary for a short while after it wrote, so
+ * it never reads its own change back from a replica that has not caught up.
+ *
+ * The window is carried in a cookie holding its end time, so it survives
+ * across requests (and nodes) without any server-side state. Outside of an
+ * HTTP request there is no client to track and the window is never open.
+ */
+public class ReadYourWritesWindow {
+
+    static final String COOKIE = "rw-primary-until";
+    private static final String OPENED = ReadYourWritesWindow.class.getName() + ".OPENED";
+
+    private final Duration window;
+
+    public ReadYourWritesWindow(Duration window) {
+        this.window = window;
+    }
+
+    /** Called for every read-write transaction of the current request. */
+    public void open() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null || attributes.getAttribute(OPENED, RequestAttributes.SCOPE_REQUEST) != null) return;
+        attributes.setAttribute(OPENED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+    }
+
+    public boolean isOpen() {
+        return isOpenForCurrentRequest();
+    }
+
+    /**
+     * Whether the current thread's request is inside its window. Work handed to
+     * other threads takes the answer along, never the request itself: the
+     * request may be recycled before that work runs.
+     */
+    public static boolean isOpenForCurrentRequest() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null) return false;
+        if (attributes.getAttribute(OPENED, RequestAttributes.SCOPE_REQUEST) != null) return true;
+
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getCookies() == null) return false;
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.back_end.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replica connection settings. Routing is only switched on when
+ * {@code url} is set; pool settings go under {@code app.datasource.replica.hikari.*}.
+ *
+ * @param url                  JDBC URL of the replica
+ * @param username             replica user (ideally with SELECT grants only)
+ * @param password             replica password
+ * @param readYourWritesWindow how long a client's reads stay on the primary after
+ *                             it wrote; should cover the usual replication lag
+ */
+@ConfigurationProperties("app.datasource.replica")
+public record ReplicaProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("5s") Duration readYourWritesWindow) {
+}
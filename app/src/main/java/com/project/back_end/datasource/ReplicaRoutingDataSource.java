@@ -0,0 +1,62 @@
+package com.project.back_end.datasource;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}) to the
+ * replica pool and everything else to the primary.
+ *
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager asks for a connection before the read-only flag
+ * of the transaction is published, the lazy proxy defers the actual lookup
+ * to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final ReadYourWritesWindow readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Runs {@code action} with every read on the primary, for callers that must
+     * not observe replication lag (e.g. rebuilding a cache right after a write).
+     * Has no effect when routing is not configured.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.open();
+            }
+            return Target.PRIMARY;
+        }
+        if (FORCE_PRIMARY.get() != null || readYourWrites.isOpen()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.back_end.events;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published by {@link com.project.back_end.services.AppointmentService} for
+ * every committed change to an appointment. It is also the delta pushed to
+ * the doctor dashboard for that doctor and day, so it only carries what a
+ * dashboard needs to patch its list.
+ *
+ * @param type          what happened
+ * @param appointmentId the appointment that changed
+ * @param doctorId      the doctor whose day is affected, or {@code null} if the publisher did not load it
+ * @param date          the affected day, or {@code null} along with {@code doctorId}
+ * @param time          start time, or {@code null} when the appointment left the day or was not loaded
+ * @param status        0 = scheduled, 1 = completed, or {@code null} when it left the day
+ * @param patientId     the patient, or {@code null} if unknown
+ */
+public record AppointmentChangedEvent(Type type, Long appointmentId, Long doctorId, LocalDate date,
+                                      LocalTime time, Integer status, Long patientId) {
+
+    public enum Type {
+        BOOKED,
+        UPDATED,
+        // Rescheduled onto another doctor or day; sent to the day it left
+        MOVED,
+        CANCELLED,
+        STATUS_CHANGED
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.back_end.events;
+
+/**
+ * Published by {@link com.project.back_end.services.DoctorService} whenever a
+ * doctor is added, updated or removed, i.e. whenever the public directory
+ * (/doctor/all, /doctor/filter) may have changed.
+ *
+ * @param doctorId the doctor that changed, or {@code null} if unknown
+ */
+public record DoctorDirectoryChangedEvent(Long doctorId) {
+}
@@ -0,0 +1,13 @@
+package com.project.back_end.events;
+
+/**
+ * Published by {@link com.project.back_end.services.TimeSlotService} once the
+ * slots of a changed doctor have been materialized again, in a transaction
+ * that has already committed. Availability caches drop the doctor's days on
+ * this event rather than on {@link DoctorDirectoryChangedEvent}: a day read
+ * in between would still see the old slots.
+ *
+ * @param doctorId the doctor whose slots changed, or {@code null} for all doctors
+ */
+public record DoctorSlotsChangedEvent(Long doctorId) {
+}
@@ -0,0 +1,183 @@
+package com.project.back_end.idempotency;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Idempotency keys for POSTs that clients retry (header "Idempotency-Key").
+ *
+ * The first request with a key runs and its response is kept for the TTL;
+ * a retry with the same key gets that response back, marked with
+ * "Idempotent-Replayed: true", without running the handler again. A retry
+ * that arrives while the first is still running waits for it (up to
+ * app.idempotency.wait, then 409).
+ *
+ * Keys are scoped by the caller (the controller passes e.g. the endpoint
+ * and token), so two clients cannot see each other's responses. Failures
+ * (an exception or a 5xx) are not kept: the retry runs again. A key reused
+ * with a different request body is rejected with 422, the body is compared
+ * by its SHA-256 as JSON.
+ *
+ * At most app.idempotency.max-entries completed keys are kept: expired ones
+ * go first, then the least recently used. Keys still in flight are never
+ * evicted, so the store can briefly hold more. The store is per node; a retry routed to
+ * another node runs again there.
+ * Outcomes are counted as "clinic.idempotency.requests" by result.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final long ttlNanos;
+    private final long waitMillis;
+    private final int maxEntries;
+    // Access order: the head is the least recently used key. Guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyStore(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${app.idempotency.wait:10s}") Duration wait,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttlNanos = ttl.toNanos();
+        this.waitMillis = wait.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope} and {@code key}; without a key it simply runs it.
+     * {@code request} is the request body, a retry must send the same one.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String id = scope + "|" + key;
+        Entry mine = new Entry(new CompletableFuture<>(), hash(request), System.nanoTime() + ttlNanos);
+        Entry existing;
+        synchronized (entries) {
+            long now = System.nanoTime();
+            existing = entries.get(id);
+            if (existing == null || existing.expiresAt() - now <= 0) {
+                entries.put(id, mine);
+                existing = mine;
+                evict(now);
+            }
+        }
+        if (existing != mine) {
+            if (!MessageDigest.isEqual(existing.requestHash(), mine.requestHash())) {
+                count("mismatched");
+                return ResponseEntity.unprocessableEntity()
+                        .body(HEADER + " was already used with a different request body.");
+            }
+            return replay(existing);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            remove(id, mine);
+            mine.response().completeExceptionally(e);
+            count("failed");
+            throw e;
+        }
+        // Not kept: a failure is retried
+        if (response.getStatusCode().is5xxServerError()) {
+            remove(id, mine);
+        }
+        mine.response().complete(response);
+        count("executed");
+        return response;
+    }
+
+    private ResponseEntity<?> replay(Entry existing) {
+        boolean done = existing.response().isDone();
+        try {
+            ResponseEntity<?> original = existing.response().get(waitMillis, TimeUnit.MILLISECONDS);
+            count(done ? "replayed" : "waited");
+            return ResponseEntity.status(original.getStatusCode())
+                    .headers(original.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(original.getBody());
+        } catch (TimeoutException e) {
+            count("in-progress");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("A request with this " + HEADER + " is still in progress.");
+        } catch (ExecutionException e) {
+            // The first attempt failed; it is not kept, so this retry reports the same failure
+            count("failed");
+            throw e.getCause() instanceof RuntimeException cause ? cause : new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Called with the lock held, after an insert: drops expired keys from the least recently
+    // used end, then the least recently used ones past the bound
+    private void evict(long now) {
+        Iterator<Entry> lru = entries.values().iterator();
+        while (lru.hasNext()) {
+            Entry entry = lru.next();
+            // In flight: a retry must still find it, even if the store goes over the bound for a while
+            if (!entry.response().isDone()) continue;
+            boolean expired = entry.expiresAt() - now <= 0;
+            if (!expired && entries.size() <= maxEntries) break;
+            lru.remove();
+            if (!expired) count("evicted");
+        }
+    }
+
+    private void remove(String id, Entry entry) {
+        synchronized (entries) {
+            entries.remove(id, entry);
+        }
+    }
+
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("clinic.idempotency.requests", "result", result).increment();
+    }
+
+    private record Entry(CompletableFuture<ResponseEntity<?>> response, byte[] requestHash, long expiresAt) {
+    }
+}
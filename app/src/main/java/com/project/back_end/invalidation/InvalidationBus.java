@@ -0,0 +1,135 @@
+package com.project.back_end.invalidation;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.project.back_end.cache.AvailabilityCache;
+import com.project.back_end.cache.DoctorDirectoryCache;
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.DoctorSlotsChangedEvent;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.push.AppointmentStreamHub;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the per-node caches of a multi-node deployment in step.
+ *
+ * Each cache drops its own entries when a change commits on this node. This
+ * bus forwards the same changes to the other nodes as compact
+ * {@link InvalidationMessage}s and applies theirs here: the doctor directory,
+ * the availability cache, the patient-name index and the Hibernate
+ * second-level cache, whose READ_WRITE regions only see writes made through
+ * this node's session factory. Appointment changes from other nodes also
+ * reach the dashboards connected here, through the AppointmentStreamHub.
+ *
+ * The transport is chosen with app.cache-bus.transport (see CacheBusConfig).
+ */
+@Component
+public class InvalidationBus {
+
+    private final InvalidationTransport transport;
+    private final DoctorDirectoryCache directoryCache;
+    private final AvailabilityCache availabilityCache;
+    private final PatientNameIndex patientNameIndex;
+    private final AppointmentStreamHub streamHub;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final String nodeId;
+    private final Counter sent;
+    private final Counter applied;
+
+    public InvalidationBus(InvalidationTransport transport,
+                           DoctorDirectoryCache directoryCache,
+                           AvailabilityCache availabilityCache,
+                           PatientNameIndex patientNameIndex,
+                           AppointmentStreamHub streamHub,
+                           ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.cache-bus.node-id:}") String nodeId) {
+        this.transport = transport;
+        this.directoryCache = directoryCache;
+        this.availabilityCache = availabilityCache;
+        this.patientNameIndex = patientNameIndex;
+        this.streamHub = streamHub;
+        this.entityManagerFactory = entityManagerFactory;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.sent = meterRegistry.counter("clinic.cache-bus.messages", "direction", "sent");
+        this.applied = meterRegistry.counter("clinic.cache-bus.messages", "direction", "applied");
+        transport.subscribe(this::receive);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    // Sent once the doctor's slots have been materialized again, so no node reloads the old ones
+    @EventListener
+    public void onDoctorChanged(DoctorSlotsChangedEvent event) {
+        send(event.doctorId() == null
+                ? new InvalidationMessage(nodeId, InvalidationMessage.Region.ALL, null, null)
+                : new InvalidationMessage(nodeId, InvalidationMessage.Region.DOCTOR, event.doctorId(), null));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        // Status changes carry no doctor and free no slot
+        if (event.doctorId() == null) return;
+        send(new InvalidationMessage(nodeId, InvalidationMessage.Region.AVAILABILITY, event.doctorId(), event.date()));
+    }
+
+    private void send(InvalidationMessage message) {
+        transport.send(message);
+        sent.increment();
+    }
+
+    void receive(InvalidationMessage message) {
+        // Already applied by the caches' own listeners
+        if (nodeId.equals(message.origin())) return;
+        applied.increment();
+
+        switch (message.region()) {
+            case AVAILABILITY -> {
+                // Sent for every booking, move or cancellation of that doctor's day
+                availabilityCache.evict(message.doctorId(), message.date());
+                patientNameIndex.evict(message.doctorId(), message.date());
+                streamHub.reloadDay(message.doctorId(), message.date());
+            }
+            case DOCTOR -> {
+                directoryCache.invalidate();
+                availabilityCache.evictDoctor(message.doctorId());
+                secondLevelCache(cache -> {
+                    cache.evictEntityData(Doctor.class, message.doctorId());
+                    cache.evictCollectionData(Doctor.class.getName() + ".availableTimes", message.doctorId());
+                    // Keyed by email, which may be what changed
+                    cache.evictNaturalIdData(Doctor.class);
+                    cache.evictDefaultQueryRegion();
+                });
+            }
+            case ALL -> {
+                directoryCache.invalidate();
+                availabilityCache.clear();
+                patientNameIndex.clear();
+                secondLevelCache(Cache::evictAllRegions);
+            }
+        }
+    }
+
+    private void secondLevelCache(Consumer<Cache> eviction) {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory != null) {
+            eviction.accept(factory.unwrap(SessionFactory.class).getCache());
+        }
+    }
+}
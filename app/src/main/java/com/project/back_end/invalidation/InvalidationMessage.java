@@ -0,0 +1,24 @@
+package com.project.back_end.invalidation;
+
+import java.time.LocalDate;
+
+/**
+ * One committed change, as broadcast to the other nodes. It only names what
+ * to drop; receivers reload from the database.
+ *
+ * @param origin   node that made the change ({@code null} for messages made up locally)
+ * @param region   what to drop
+ * @param doctorId the doctor, or {@code null} for {@link Region#ALL}
+ * @param date     the day whose availability changed, for {@link Region#AVAILABILITY}
+ */
+public record InvalidationMessage(String origin, Region region, Long doctorId, LocalDate date) {
+
+    public enum Region {
+        // The doctor's row, directory listings and all of their availability
+        DOCTOR,
+        // One doctor's free slots on one day
+        AVAILABILITY,
+        // Everything; sent when a transport may have lost messages
+        ALL
+    }
+}
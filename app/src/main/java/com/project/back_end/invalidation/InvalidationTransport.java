@@ -0,0 +1,18 @@
+package com.project.back_end.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link InvalidationMessage}s between the nodes of a deployment.
+ *
+ * Delivery is best effort and at most once: a lost message leaves a node
+ * serving a stale entry until it expires. A transport that knows it missed
+ * messages should deliver an {@link InvalidationMessage.Region#ALL} message.
+ * Receivers are called with every message, including the node's own.
+ */
+public interface InvalidationTransport {
+
+    void send(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> receiver);
+}
@@ -0,0 +1,25 @@
+package com.project.back_end.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process transport: every message is handed to every receiver on the
+ * sending thread. The default for a single node, and in tests several buses
+ * sharing one instance stand in for several nodes.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<InvalidationMessage>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(InvalidationMessage message) {
+        receivers.forEach(receiver -> receiver.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> receiver) {
+        receivers.add(receiver);
+    }
+}
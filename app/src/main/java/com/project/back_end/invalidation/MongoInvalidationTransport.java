@@ -0,0 +1,185 @@
+package com.project.back_end.invalidation;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.CursorType;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+
+/**
+ * Broadcasts invalidations through a capped collection in the MongoDB that
+ * already holds the prescriptions. Every node appends its messages and tails
+ * the collection with a tailable cursor, so nothing beyond the existing
+ * database is needed and a standalone server works (change streams would
+ * need a replica set).
+ *
+ * Messages are appended from a single sender thread, in commit order, and
+ * read on a single tailing thread. The position survives reconnects; if the
+ * collection wrapped past it while disconnected, the receivers get an
+ * {@link InvalidationMessage.Region#ALL} message instead of the lost ones.
+ */
+public class MongoInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoInvalidationTransport.class);
+    private static final long RETRY_MILLIS = 1000;
+
+    private final MongoCollection<Document> collection;
+    private final List<Consumer<InvalidationMessage>> receivers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender;
+    private final Thread tailer;
+    private volatile boolean running = true;
+    // Last document seen, in the collection's natural (insertion) order
+    private ObjectId position;
+
+    public MongoInvalidationTransport(MongoTemplate mongoTemplate, String collectionName, long cappedSizeBytes) {
+        this(cappedCollection(mongoTemplate, collectionName, cappedSizeBytes));
+    }
+
+    MongoInvalidationTransport(MongoCollection<Document> collection) {
+        this.collection = collection;
+        Document newest = collection.find().sort(Sorts.descending("$natural")).first();
+        this.position = newest == null ? null : newest.getObjectId("_id");
+
+        this.sender = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "cache-bus-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tailer = new Thread(this::tail, "cache-bus-tail");
+        tailer.setDaemon(true);
+    }
+
+    private static MongoCollection<Document> cappedCollection(MongoTemplate mongoTemplate, String collectionName,
+                                                              long cappedSizeBytes) {
+        if (!mongoTemplate.collectionExists(collectionName)) {
+            try {
+                mongoTemplate.createCollection(collectionName, CollectionOptions.empty().capped().size(cappedSizeBytes));
+            } catch (DataAccessException e) {
+                // Another node created it first
+            }
+        }
+        return mongoTemplate.getCollection(collectionName);
+    }
+
+    @Override
+    public void send(InvalidationMessage message) {
+        try {
+            sender.execute(() -> {
+                try {
+                    collection.insertOne(toDocument(message));
+                } catch (MongoException e) {
+                    log.warn("Could not broadcast {}", message, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<InvalidationMessage> receiver) {
+        receivers.add(receiver);
+        // Tailing starts with the first receiver, so no message is consumed unseen
+        if (tailer.getState() == Thread.State.NEW) tailer.start();
+    }
+
+    private void tail() {
+        while (running) {
+            try {
+                tailOnce();
+            } catch (MongoException e) {
+                if (running) log.warn("Invalidation tail interrupted, reconnecting", e);
+            }
+            if (running) pause();
+        }
+    }
+
+    private void tailOnce() {
+        // Natural order is insertion order; ObjectIds are not ordered across nodes' clocks
+        boolean skipping = position != null;
+        if (skipping && collection.countDocuments(Filters.eq("_id", position)) == 0) {
+            deliver(new InvalidationMessage(null, InvalidationMessage.Region.ALL, null, null));
+            skipping = false;
+        }
+        try (MongoCursor<Document> cursor = collection.find()
+                .cursorType(CursorType.TailableAwait)
+                .maxAwaitTime(1, TimeUnit.SECONDS)
+                .iterator()) {
+            while (running) {
+                Document document = cursor.tryNext();
+                if (document == null) {
+                    // An empty collection gives a dead cursor straight away
+                    if (cursor.getServerCursor() == null) return;
+                    continue;
+                }
+                ObjectId id = document.getObjectId("_id");
+                if (skipping) {
+                    skipping = !id.equals(position);
+                    continue;
+                }
+                position = id;
+                deliver(fromDocument(document));
+            }
+        }
+    }
+
+    private void deliver(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> receiver : receivers) {
+            try {
+                receiver.accept(message);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation receiver failed for {}", message, e);
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // Short field names: the collection is capped by size
+    private static Document toDocument(InvalidationMessage message) {
+        Document document = new Document("o", message.origin()).append("r", message.region().name());
+        if (message.doctorId() != null) document.append("d", message.doctorId());
+        if (message.date() != null) document.append("t", message.date().toString());
+        return document;
+    }
+
+    private static InvalidationMessage fromDocument(Document document) {
+        String date = document.getString("t");
+        return new InvalidationMessage(document.getString("o"),
+                InvalidationMessage.Region.valueOf(document.getString("r")),
+                document.getLong("d"),
+                date == null ? null : LocalDate.parse(date));
+    }
+
+    public void close() throws InterruptedException {
+        running = false;
+        sender.shutdown();
+        sender.awaitTermination(2, TimeUnit.SECONDS);
+        tailer.interrupt();
+    }
+}
@@ -7,9 +7,15 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "admins")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Second-level cache, see SecondLevelCacheConfig
+@NaturalIdCache
 public class Admin {
 
     @Id
@@ -17,6 +23,7 @@ public class Admin {
     private Long id; // Auto-incremented primary key
 
     @NotNull(message = "username cannot be null")
+    @NaturalId(mutable = true) // Token checks go through the natural-id cache
     private String username; // Admin login username
 
     @NotNull(message = "password cannot be null")
@@ -11,6 +11,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -21,7 +22,9 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "appointments")
+// Doctor/day lookups (schedule, availability, dashboard) stay on the index
+@Table(name = "appointments",
+		indexes = @Index(name = "idx_appointment_doctor_time", columnList = "doctor_id, appointment_time"))
 public class Appointment {
 
 	@Id
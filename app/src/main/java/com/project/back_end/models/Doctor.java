@@ -2,6 +2,10 @@ package com.project.back_end.models;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -11,6 +15,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "doctors")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Second-level cache, see SecondLevelCacheConfig
+@NaturalIdCache
 public class Doctor {
 
     @Id
@@ -27,6 +33,7 @@ public class Doctor {
 
     @NotNull(message = "Email cannot be null")
     @Email(message = "Invalid email format")
+    @NaturalId(mutable = true) // Login/token lookups go through the natural-id cache
     private String email; // Doctor’s email address
 
     @NotNull(message = "Password cannot be null")
@@ -39,6 +46,7 @@ public class Doctor {
     private String phone; // Doctor’s contact number
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> availableTimes; // List of available time slots
 
     // ----- Constructors -----
@@ -0,0 +1,71 @@
+package com.project.back_end.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One bookable slot of a doctor, materialized from the doctor's
+ * availableTimes template (see TimeSlotService). Booking claims the slot by
+ * flipping {@code available}; the unique key keeps a doctor from having two
+ * slots starting at the same time and serves the per-day range reads.
+ */
+@Entity
+@Table(name = "doctor_time_slots",
+		uniqueConstraints = @UniqueConstraint(name = "uk_slot_doctor_start", columnNames = { "doctor_id", "start_time" }))
+public class DoctorTimeSlot {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// Derived from the doctor's template, so they go with the doctor
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "doctor_id", nullable = false)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private Doctor doctor;
+
+	@Column(name = "start_time", nullable = false)
+	private LocalDateTime startTime;
+
+	@Column(name = "end_time", nullable = false)
+	private LocalDateTime endTime;
+
+	@Column(name = "is_available", nullable = false)
+	private boolean available = true;
+
+	public DoctorTimeSlot() {
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Doctor getDoctor() {
+		return doctor;
+	}
+
+	public LocalDateTime getStartTime() {
+		return startTime;
+	}
+
+	public LocalDateTime getEndTime() {
+		return endTime;
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+}
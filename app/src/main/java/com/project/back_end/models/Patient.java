@@ -6,13 +6,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "patients")
+// Authoritative for registration; UniquenessService only saves the lookups
+@Table(name = "patients", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_patient_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_patient_phone", columnNames = "phone") })
 public class Patient {
 
     @Id
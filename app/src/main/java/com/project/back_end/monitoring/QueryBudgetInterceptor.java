@@ -0,0 +1,77 @@
+package com.project.back_end.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements issued while handling each request, records them
+ * per endpoint as "http.server.queries" and warns when a request goes over
+ * its {@link QueryBudgetProperties budget} (usually an N+1 on a lazy
+ * association or collection).
+ */
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetInterceptor(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (handler instanceof HandlerMethod) {
+            QueryCounter.start();
+        }
+        return true;
+    }
+
+    // Streaming responses (e.g. server-sent events) release the request thread
+    // here; the async dispatch that finishes them opens its own scope
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (handler instanceof HandlerMethod) {
+            QueryCounter.stop();
+        }
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod)) return;
+
+        int statements = QueryCounter.stop();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.queries")
+                .description("SQL statements issued per request")
+                .tag("method", request.getMethod())
+                .tag("uri", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+
+        int budget = properties.budgetFor(endpoint);
+        if (statements > budget) {
+            log.warn("Query budget exceeded: {} {} issued {} SQL statements (budget {})",
+                    request.getMethod(), endpoint, statements, budget);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.back_end.monitoring;
+
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Maximum number of SQL statements a single request may issue before a
+ * warning is logged.
+ *
+ * @param defaultBudget budget for endpoints without an explicit entry
+ * @param endpoints     per-endpoint budgets keyed by request mapping pattern,
+ *                      e.g. {@code app.query-budget.endpoints[/doctor/all]=2}
+ */
+@ConfigurationProperties("app.query-budget")
+public record QueryBudgetProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10") int defaultBudget,
+        Map<String, Integer> endpoints) {
+
+    public int budgetFor(String pattern) {
+        if (endpoints == null) return defaultBudget;
+        return endpoints.getOrDefault(pattern, defaultBudget);
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.back_end.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook invoked once for every SQL statement it prepares; feeds
+ * {@link QueryCounter}. The statement itself is returned unchanged.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.back_end.monitoring;
+
+/**
+ * Per-thread count of SQL statements issued through Hibernate.
+ *
+ * A scope is opened with {@link #start()} (once per HTTP request by
+ * {@link QueryBudgetInterceptor}, or around a service call in tests) and closed
+ * with {@link #stop()}. Statements issued outside a scope are not counted.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Closes the current scope and returns the number of statements it saw.
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.back_end.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.lang.NonNull;
+
+/**
+ * Remembers which repository method the current thread is executing, e.g.
+ * "AppointmentRepository.findByDoctorIdAndAppointmentTimeBetween", so that
+ * JDBC-level instrumentation can attribute statements to their caller.
+ */
+public final class RepositoryCallContext {
+
+    static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryCallContext() {
+    }
+
+    /**
+     * Repository method on the current thread, or "none" for statements
+     * issued outside a repository call (lazy loading, flush at commit).
+     */
+    public static String current() {
+        String method = CURRENT.get();
+        return method != null ? method : NONE;
+    }
+
+    /**
+     * Registers the tracking advice on every Spring Data repository (JPA and Mongo).
+     */
+    public static class RegistrationPostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+            if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, information) -> proxyFactory.addAdvice(
+                                new Tracker(information.getRepositoryInterface().getSimpleName()))));
+            }
+            return bean;
+        }
+    }
+
+    private static final class Tracker implements MethodInterceptor {
+
+        private final String repositoryName;
+
+        Tracker(String repositoryName) {
+            this.repositoryName = repositoryName;
+        }
+
+        @Override
+        public Object invoke(@NonNull MethodInvocation invocation) throws Throwable {
+            String previous = CURRENT.get();
+            CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.back_end.monitoring;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.NonNull;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the JDBC DataSource in a datasource-proxy that reports every executed
+ * statement to the {@link SlowQueryListener}.
+ *
+ * With replica routing only the pools are wrapped, not the routing layer in
+ * front of them, so every statement is reported once, under its pool's bean name.
+ */
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryListener> listener;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryListener> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener.getObject())
+                    .build();
+        }
+        return bean;
+    }
+}
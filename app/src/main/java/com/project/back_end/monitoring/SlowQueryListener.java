@@ -0,0 +1,113 @@
+package com.project.back_end.monitoring;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Replaces spring.jpa.show-sql: only statements slower than the threshold
+ * (at WARN), plus an optional random sample of the rest (at INFO), are logged,
+ * one structured line each with the calling repository method, the elapsed
+ * time and redacted bind parameters (types only, never values).
+ *
+ * Every statement is also recorded in a "db.statement" timer per statement id
+ * (a short hash of the SQL text) whose percentiles roll over a two-minute window.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("slow-query");
+
+    private static final String OTHER = "other";
+
+    private final SlowQueryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> statementIds = new ConcurrentHashMap<>();
+
+    public SlowQueryListener(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        String repositoryMethod = RepositoryCallContext.current();
+
+        for (QueryInfo query : queryInfoList) {
+            String sql = query.getQuery();
+            String statementId = statementId(sql);
+
+            Timer.builder("db.statement")
+                    .description("JDBC statement latency")
+                    .tag("statement", statementId)
+                    .tag("repository", repositoryMethod)
+                    .publishPercentileHistogram()
+                    .distributionStatisticExpiry(Duration.ofMinutes(2))
+                    .register(meterRegistry)
+                    .record(elapsedMs, TimeUnit.MILLISECONDS);
+
+            boolean slow = elapsedMs >= properties.thresholdMs();
+            if (slow || sampled()) {
+                String params = redact(query.getParametersList());
+                // Key/values are emitted as fields when logging.structured.format.* is set.
+                // Samples are fast statements: INFO and their own message, so alerts on "Slow query" skip them
+                (slow ? log.atWarn() : log.atInfo())
+                        .setMessage((slow ? "Slow query" : "Sampled query") + ": {} ms in {} [{}] params={} sql={}")
+                        .addArgument(elapsedMs)
+                        .addArgument(repositoryMethod)
+                        .addArgument(statementId)
+                        .addArgument(params)
+                        .addArgument(sql)
+                        .addKeyValue("elapsedMs", elapsedMs)
+                        .addKeyValue("slow", slow)
+                        .addKeyValue("repository", repositoryMethod)
+                        .addKeyValue("statement", statementId)
+                        .addKeyValue("batchSize", execInfo.getBatchSize())
+                        .addKeyValue("success", execInfo.isSuccess())
+                        .log();
+            }
+        }
+    }
+
+    private boolean sampled() {
+        return properties.sampleRate() > 0 && ThreadLocalRandom.current().nextDouble() < properties.sampleRate();
+    }
+
+    private String statementId(String sql) {
+        String id = statementIds.get(sql);
+        if (id != null) return id;
+        if (statementIds.size() >= properties.maxStatementIds()) return OTHER;
+        return statementIds.computeIfAbsent(sql, s -> String.format("%08x", s.hashCode()));
+    }
+
+    // Bind values can hold e-mails, phone numbers and passwords: keep only their types
+    static String redact(List<List<ParameterSetOperation>> parametersList) {
+        return parametersList.stream()
+                .map(parameters -> parameters.stream()
+                        .map(operation -> {
+                            Object[] args = operation.getArgs();
+                            Object value = args.length > 1 ? args[1] : null;
+                            return value == null ? "null" : value.getClass().getSimpleName();
+                        })
+                        .collect(Collectors.joining(",", "[", "]")))
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.back_end.monitoring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the JDBC slow-query log.
+ *
+ * @param thresholdMs     statements at or above this latency are always logged
+ * @param sampleRate      fraction (0..1) of faster statements logged anyway
+ * @param maxStatementIds cap on distinct statements tracked as separate
+ *                        histograms; further ones share the "other" series
+ */
+@ConfigurationProperties("app.slow-query")
+public record SlowQueryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200") long thresholdMs,
+        @DefaultValue("0") double sampleRate,
+        @DefaultValue("500") int maxStatementIds) {
+}
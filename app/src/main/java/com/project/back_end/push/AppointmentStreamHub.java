@@ -0,0 +1,297 @@
+package com.project.back_end.push;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.datasource.ReplicaRoutingDataSource;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent event channels for the doctor dashboard, one per doctor and day.
+ *
+ * Committed {@link AppointmentChangedEvent}s are serialized once and written
+ * to every open stream on the affected channel, so an open dashboard no longer
+ * has to re-fetch the whole day to notice a booking, a cancellation or a
+ * status change. Streams are held by the servlet container's async support,
+ * not by a request thread.
+ *
+ * Fan-out happens on a single hub thread, never on the thread that committed
+ * the change. The writes themselves go through a small bounded writer pool,
+ * each stream with its own ordered queue, so one slow client cannot hold up
+ * the others. A stream whose queue backs up past max-pending, or whose write
+ * has been blocked longer than write-timeout, is dropped; its EventSource
+ * reconnects and the dashboard reloads the day.
+ *
+ * Changes committed on another node arrive through the InvalidationBus with
+ * only the doctor and day; those channels get a "reload" event instead.
+ *
+ * The hub thread also sends a comment line every heartbeat interval, which
+ * keeps idle connections open through proxies and finds dead clients.
+ *
+ * Events published without a doctor and day (a bare status update) are
+ * resolved here, and only while some dashboard is connected.
+ */
+@Component
+public class AppointmentStreamHub {
+
+    private final ObjectMapper objectMapper;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentShards appointmentShards;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final int maxPending;
+    private final Map<String, Set<Subscriber>> channels = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sender;
+    private final ThreadPoolExecutor writers;
+    private final Counter delivered;
+    private final Counter dropped;
+
+    public AppointmentStreamHub(ObjectMapper objectMapper,
+                                AppointmentRepository appointmentRepository,
+                                AppointmentShards appointmentShards,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.appointment-push.timeout:30m}") Duration timeout,
+                                @Value("${app.appointment-push.heartbeat:25s}") Duration heartbeat,
+                                @Value("${app.appointment-push.writers:4}") int writerCount,
+                                @Value("${app.appointment-push.queue-capacity:1000}") int queueCapacity,
+                                @Value("${app.appointment-push.max-pending:32}") int maxPending,
+                                @Value("${app.appointment-push.write-timeout:10s}") Duration writeTimeout) {
+        this.objectMapper = objectMapper;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentShards = appointmentShards;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.maxPending = maxPending;
+        this.delivered = meterRegistry.counter("clinic.push.delivered");
+        this.dropped = meterRegistry.counter("clinic.push.dropped");
+        Gauge.builder("clinic.push.subscribers", channels,
+                        c -> c.values().stream().mapToInt(Set::size).sum())
+                .description("Open doctor dashboard streams")
+                .register(meterRegistry);
+
+        this.sender = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "appointment-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Each stream has at most one drain task queued, so the queue bounds the streams waiting for a writer
+        AtomicInteger writerIds = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerCount, writerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "appointment-push-writer-" + writerIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        long period = heartbeat.toMillis();
+        sender.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream on the channel for {@code doctorId} and {@code date}.
+     * The stream ends on timeout (the browser's EventSource then reconnects),
+     * on a failed or slow write, or at shutdown.
+     */
+    public SseEmitter subscribe(Long doctorId, LocalDate date) {
+        return subscribe(doctorId, date, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long doctorId, LocalDate date, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(channel(doctorId, date), emitter);
+        channels.computeIfAbsent(subscriber.channel, k -> new CopyOnWriteArraySet<>()).add(subscriber);
+
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Flushes the headers right away so the client sees the stream as open
+        offer(subscriber, SseEmitter.event().comment("subscribed"), false);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        boolean listening = event.doctorId() == null
+                ? !channels.isEmpty()
+                : channels.containsKey(channel(event.doctorId(), event.date()));
+        if (!listening) return;
+        try {
+            sender.execute(() -> publish(event.doctorId() == null ? locate(event) : event));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the dashboards reload when they reconnect
+        }
+    }
+
+    // Read from the primary: the change has only just committed
+    private AppointmentChangedEvent locate(AppointmentChangedEvent event) {
+        Appointment appointment = ReplicaRoutingDataSource.onPrimary(() -> appointmentShards.onAppointmentShard(
+                event.appointmentId(), () -> appointmentRepository.findById(event.appointmentId()).orElse(null)));
+        if (appointment == null) return null;
+        return new AppointmentChangedEvent(event.type(), event.appointmentId(), appointment.getDoctor().getId(),
+                appointment.getAppointmentTime().toLocalDate(), appointment.getAppointmentTime().toLocalTime(),
+                event.status(), appointment.getPatient().getId());
+    }
+
+    /** A change to the doctor's day committed on another node: its dashboards reload the day. */
+    public void reloadDay(Long doctorId, LocalDate date) {
+        if (!channels.containsKey(channel(doctorId, date))) return;
+        try {
+            sender.execute(() -> fanOut(channel(doctorId, date), "reload",
+                    Map.of("doctorId", doctorId, "date", date.toString())));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the dashboards reload when they reconnect
+        }
+    }
+
+    void publish(AppointmentChangedEvent event) {
+        if (event == null) return;
+        fanOut(channel(event.doctorId(), event.date()), "appointment", event);
+    }
+
+    private void fanOut(String channel, String name, Object payload) {
+        Set<Subscriber> subscribers = channels.get(channel);
+        if (subscribers == null) return;
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON), true);
+        }
+    }
+
+    private void heartbeat() {
+        channels.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> offer(subscriber, SseEmitter.event().comment("ping"), false)));
+    }
+
+    // Queues a write for one stream and schedules its drain unless one is already running
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event, boolean counted) {
+        long writingSince = subscriber.writingSince;
+        if (writingSince != 0 && System.nanoTime() - writingSince > writeTimeoutNanos
+                || subscriber.queued.incrementAndGet() > maxPending) {
+            drop(subscriber);
+            return;
+        }
+        subscriber.pending.add(new Write(event, counted));
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Every writer is busy and the queue is full (or shutting down)
+                drop(subscriber);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Write write;
+            while ((write = subscriber.pending.poll()) != null) {
+                subscriber.queued.decrementAndGet();
+                subscriber.writingSince = System.nanoTime();
+                boolean sent = send(subscriber.emitter, write.event());
+                subscriber.writingSince = 0;
+                if (!sent) return;
+                if (write.counted()) delivered.increment();
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.pending.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter is already complete)
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    // Too slow to keep up: stop feeding the stream and end it
+    private void drop(Subscriber subscriber) {
+        if (!unsubscribe(subscriber)) return;
+        dropped.increment();
+        subscriber.pending.clear();
+        subscriber.emitter.complete();
+    }
+
+    /** @return false if the subscriber was already gone */
+    private boolean unsubscribe(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        channels.computeIfPresent(subscriber.channel, (k, subscribers) -> {
+            removed.set(subscribers.remove(subscriber));
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        return removed.get();
+    }
+
+    private static String channel(Long doctorId, LocalDate date) {
+        return doctorId + "/" + date;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        writers.shutdownNow();
+        channels.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        channels.clear();
+    }
+
+    private record Write(SseEmitter.SseEventBuilder event, boolean counted) {
+    }
+
+    // One open stream and its pending writes, drained in order by at most one writer at a time
+    private static final class Subscriber {
+
+        final String channel;
+        final SseEmitter emitter;
+        final Queue<Write> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the current write started, 0 between writes
+        volatile long writingSince;
+
+        Subscriber(String channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+    }
+}
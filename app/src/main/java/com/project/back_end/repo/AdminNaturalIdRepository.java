@@ -0,0 +1,9 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Admin;
+
+// Repository fragment: username lookups resolved through the natural-id cache
+public interface AdminNaturalIdRepository {
+
+    Admin findByUsername(String username);
+}
@@ -0,0 +1,26 @@
+package com.project.back_end.repo;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.Admin;
+
+import jakarta.persistence.EntityManager;
+
+class AdminNaturalIdRepositoryImpl implements AdminNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    AdminNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // username -> id from the natural-id region, then the admin from the entity region
+    @Override
+    @Transactional(readOnly = true)
+    public Admin findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Admin.class)
+                .load(username);
+    }
+}
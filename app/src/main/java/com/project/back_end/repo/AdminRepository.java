@@ -5,8 +5,7 @@ import org.springframework.stereotype.Repository;
 import com.project.back_end.models.Admin;
 
 @Repository
-public interface AdminRepository extends JpaRepository<Admin, Long> {
+public interface AdminRepository extends JpaRepository<Admin, Long>, AdminNaturalIdRepository {
 
-    // Custom finder method
-    Admin findByUsername(String username);
+    // Custom finder method findByUsername(String) comes from AdminNaturalIdRepository
 }
@@ -0,0 +1,21 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Repository fragment: sparse fieldsets, only the requested columns are selected
+public interface AppointmentFieldsRepository {
+
+    // 🔹 Dashboard row properties a client can ask for, in response order
+    List<String> FIELDS = List.of("id", "appointmentTime", "status",
+            "patientId", "patientName", "patientPhone", "patientEmail");
+
+    // 🔹 The requested fields of a doctor's appointments in [start, end), or of
+    // the given appointments when ids is not null, in time order.
+    // Patients are joined only for patientName, patientPhone or patientEmail.
+    List<Map<String, Object>> findDashboardFields(Set<String> fields, Long doctorId,
+                                                  LocalDateTime start, LocalDateTime end, Collection<Long> ids);
+}
@@ -0,0 +1,80 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Patient;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class AppointmentFieldsRepositoryImpl implements AppointmentFieldsRepository {
+
+    // Response property -> patient attribute; patientId is the foreign key itself
+    private static final Map<String, String> PATIENT_COLUMNS = Map.of(
+            "patientName", "name",
+            "patientPhone", "phone",
+            "patientEmail", "email");
+
+    private final EntityManager entityManager;
+
+    AppointmentFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findDashboardFields(Set<String> fields, Long doctorId,
+                                                         LocalDateTime start, LocalDateTime end,
+                                                         Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Appointment> appointment = query.from(Appointment.class);
+        From<Appointment, Patient> patient = fields.stream().anyMatch(PATIENT_COLUMNS::containsKey)
+                ? appointment.join("patient")
+                : null;
+
+        List<Selection<?>> columns = new ArrayList<>();
+        for (String field : fields) {
+            Path<?> column = switch (field) {
+                case "patientId" -> appointment.get("patient").get("id");
+                case "patientName", "patientPhone", "patientEmail" -> patient.get(PATIENT_COLUMNS.get(field));
+                default -> appointment.get(field);
+            };
+            columns.add(column.alias(field));
+        }
+
+        Path<LocalDateTime> time = appointment.get("appointmentTime");
+        query.multiselect(columns)
+                .where(ids != null
+                        ? appointment.get("id").in(ids)
+                        : cb.and(cb.equal(appointment.get("doctor").get("id"), doctorId),
+                                cb.greaterThanOrEqualTo(time, start),
+                                cb.lessThan(time, end)))
+                .orderBy(cb.asc(time));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                values.put(field, row.get(field));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+}
@@ -9,10 +9,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.project.back_end.DTO.DashboardAppointment;
 import com.project.back_end.models.Appointment;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentFieldsRepository {
 
     // 🔹 Find all appointments for a doctor within a specific time range
     List<Appointment> findByDoctorIdAndAppointmentTimeBetween(
@@ -27,6 +28,51 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             LocalDateTime start,
             LocalDateTime end);
 
+    // 🔹 Ids of a doctor's appointments in a range (covered by idx_appointment_doctor_time)
+    @Query("SELECT a.id FROM Appointment a " +
+           "WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+    List<Long> findIdsByDoctorIdAndAppointmentTimeRange(
+            Long doctorId,
+            LocalDateTime start,
+            LocalDateTime end);
+
+    // 🔹 {id, patient name} of a doctor's appointments in a range, to build the name index
+    @Query("SELECT a.id, p.name FROM Appointment a JOIN a.patient p " +
+           "WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+    List<Object[]> findPatientNamesByDoctorIdAndAppointmentTimeRange(
+            Long doctorId,
+            LocalDateTime start,
+            LocalDateTime end);
+
+    // 🔹 Appointments by id, in time order
+    List<Appointment> findByIdInOrderByAppointmentTimeAsc(List<Long> ids);
+
+    // 🔹 Only some columns of the dashboard rows: findDashboardFields(...) comes from AppointmentFieldsRepository
+
+    // 🔹 Dashboard rows for the given appointment ids, in time order
+    @Query("SELECT new com.project.back_end.DTO.DashboardAppointment(" +
+           "a.id, a.appointmentTime, a.status, p.id, p.name, p.phone, p.email) " +
+           "FROM Appointment a JOIN a.patient p " +
+           "WHERE a.id IN :ids " +
+           "ORDER BY a.appointmentTime")
+    List<DashboardAppointment> findDashboardRowsByIds(List<Long> ids);
+
+    // 🔹 Dashboard rows: appointments with patient details in one join, optional name filter
+    @Query("SELECT new com.project.back_end.DTO.DashboardAppointment(" +
+           "a.id, a.appointmentTime, a.status, p.id, p.name, p.phone, p.email) " +
+           "FROM Appointment a JOIN a.patient p " +
+           "WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentTime >= :start AND a.appointmentTime < :end " +
+           "AND (:patientName IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%'))) " +
+           "ORDER BY a.appointmentTime")
+    List<DashboardAppointment> findDashboardRows(
+            Long doctorId,
+            LocalDateTime start,
+            LocalDateTime end,
+            String patientName);
+
     // 🔹 Delete all appointments for a given doctor
     @Modifying
     @Transactional
@@ -0,0 +1,18 @@
+package com.project.back_end.repo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Repository fragment: sparse fieldsets, only the requested columns are selected
+public interface DoctorFieldsRepository {
+
+    // 🔹 Properties a client can ask for, in response order (never the password)
+    List<String> FIELDS = List.of("id", "name", "specialty", "email", "phone", "availableTimes");
+
+    // 🔹 The requested fields of the doctors matching the optional filters:
+    // name (partial, case-insensitive), specialty (exact, case-insensitive),
+    // time ("AM" / "PM": at least one available time in that half of the day).
+    // availableTimes is read by a second query, and only when it is requested.
+    List<Map<String, Object>> findFields(Set<String> fields, String name, String specialty, String timePeriod);
+}
@@ -0,0 +1,118 @@
+package com.project.back_end.repo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.Doctor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+
+class DoctorFieldsRepositoryImpl implements DoctorFieldsRepository {
+
+    private static final String AVAILABLE_TIMES = "availableTimes";
+    // Bound parameters per IN list of the availableTimes query
+    private static final int IN_CHUNK = 1000;
+
+    private final EntityManager entityManager;
+
+    DoctorFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFields(Set<String> fields, String name, String specialty, String timePeriod) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Doctor> doctor = query.from(Doctor.class);
+
+        // Scalar columns only: the entity, and so its collection, is never loaded
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(doctor.get("id").alias("id"));
+        for (String field : fields) {
+            if (!field.equals("id") && !field.equals(AVAILABLE_TIMES)) {
+                columns.add(doctor.get(field).alias(field));
+            }
+        }
+
+        List<Predicate> where = new ArrayList<>();
+        if (name != null && !name.isBlank()) {
+            where.add(cb.like(cb.lower(doctor.<String>get("name")), contains(name), '\\'));
+        }
+        if (specialty != null && !specialty.isBlank()) {
+            where.add(cb.equal(cb.lower(doctor.<String>get("specialty")), specialty.trim().toLowerCase(Locale.ROOT)));
+        }
+        if (timePeriod != null && !timePeriod.isBlank()) {
+            where.add(availableIn(cb, query, doctor, timePeriod));
+        }
+
+        query.multiselect(columns)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(doctor.get("id")));
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+
+        Map<Long, List<String>> times = fields.contains(AVAILABLE_TIMES)
+                ? availableTimes(rows.stream().map(row -> row.get("id", Long.class)).toList())
+                : Map.of();
+
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                values.put(field, field.equals(AVAILABLE_TIMES)
+                        ? times.getOrDefault(row.get("id", Long.class), List.of())
+                        : row.get(field));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    // Same rule as DoctorService.filterDoctorsByTime, on the "HH:mm" start of each time
+    private static Predicate availableIn(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Doctor> doctor,
+                                         String timePeriod) {
+        Subquery<Integer> slot = query.subquery(Integer.class);
+        Root<Doctor> same = slot.correlate(doctor);
+        Expression<String> start = cb.substring(same.<Doctor, String>join(AVAILABLE_TIMES), 1, 5);
+        slot.select(cb.literal(1))
+                .where(timePeriod.equalsIgnoreCase("AM")
+                        ? cb.lessThan(start, "12:00")
+                        : cb.greaterThan(start, "12:00"));
+        return cb.exists(slot);
+    }
+
+    private Map<Long, List<String>> availableTimes(List<Long> ids) {
+        Map<Long, List<String>> times = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Object[]> rows = entityManager.createQuery(
+                            "SELECT d.id, t FROM Doctor d JOIN d.availableTimes t WHERE d.id IN :ids", Object[].class)
+                    .setParameter("ids", ids.subList(from, Math.min(ids.size(), from + IN_CHUNK)))
+                    .getResultList();
+            for (Object[] row : rows) {
+                times.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return times;
+    }
+
+    private static String contains(String text) {
+        String escaped = text.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
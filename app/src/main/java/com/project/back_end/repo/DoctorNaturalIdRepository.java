@@ -0,0 +1,10 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+
+// Repository fragment: email lookups resolved through the natural-id cache
+public interface DoctorNaturalIdRepository {
+
+    // 🔹 Find a doctor by email
+    Doctor findByEmail(String email);
+}
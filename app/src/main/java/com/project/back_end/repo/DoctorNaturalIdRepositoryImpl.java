@@ -0,0 +1,26 @@
+package com.project.back_end.repo;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.Doctor;
+
+import jakarta.persistence.EntityManager;
+
+class DoctorNaturalIdRepositoryImpl implements DoctorNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    DoctorNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // email -> id from the natural-id region, then the doctor from the entity region
+    @Override
+    @Transactional(readOnly = true)
+    public Doctor findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Doctor.class)
+                .load(email);
+    }
+}
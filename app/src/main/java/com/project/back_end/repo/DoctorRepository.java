@@ -1,24 +1,58 @@
 package com.project.back_end.repo;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.project.back_end.models.Doctor;
 
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, DoctorNaturalIdRepository,
+        DoctorFieldsRepository {
+
+    // List queries fetch availableTimes in the same query: the lists are
+    // serialized after the transaction has ended (open-in-view is off).
+    // Their results go to the query cache, invalidated by any doctor write.
+
+    // 🔹 Find all doctors
+    @Override
+    @EntityGraph(attributePaths = "availableTimes")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Doctor> findAll();
 
-    // 🔹 Find a doctor by email
-    Doctor findByEmail(String email);
+    // 🔹 Find a doctor by email: findByEmail(String) comes from DoctorNaturalIdRepository
 
     // 🔹 Find doctors whose name partially matches (case-sensitive)
+    @EntityGraph(attributePaths = "availableTimes")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Doctor> findByNameLike(String name);
 
     // 🔹 Find doctors by name (partial, case-insensitive) and specialty (exact, case-insensitive)
+    @EntityGraph(attributePaths = "availableTimes")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
 
     // 🔹 Find all doctors by specialty (case-insensitive)
+    @EntityGraph(attributePaths = "availableTimes")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Doctor> findBySpecialtyIgnoreCase(String specialty);
+
+    // 🔹 Only some columns of the directory: findFields(...) comes from DoctorFieldsRepository
+
+    // 🔹 Every doctor email, to seed the registration filter (see UniquenessService)
+    @Query("SELECT d.email FROM Doctor d")
+    List<String> findAllEmails();
+
+    // 🔹 {id, email} of the doctors with one of these emails: one IN query per bulk import chunk
+    @Query("SELECT d.id, d.email FROM Doctor d WHERE d.email IN :emails")
+    List<Object[]> findIdsByEmailIn(Collection<String> emails);
 }
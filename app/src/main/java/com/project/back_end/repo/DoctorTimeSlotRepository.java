@@ -0,0 +1,75 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.DoctorTimeSlot;
+
+// Rows are inserted in batches by TimeSlotService, not through save()
+@Repository
+public interface DoctorTimeSlotRepository extends JpaRepository<DoctorTimeSlot, Long> {
+
+    // 🔹 A doctor's slots in [start, end), free or taken, in time order (range on uk_slot_doctor_start)
+    @Query("SELECT s FROM DoctorTimeSlot s " +
+           "WHERE s.doctor.id = :doctorId " +
+           "AND s.startTime >= :start AND s.startTime < :end " +
+           "ORDER BY s.startTime")
+    List<DoctorTimeSlot> findRange(
+            Long doctorId,
+            LocalDateTime start,
+            LocalDateTime end);
+
+    // 🔹 The first free slots after a time of any of the doctors, within minutes [fromMinute, toMinute)
+    // of the day, in time order (then doctor id, so that ties are cut the same way on every shard)
+    @Query("SELECT s FROM DoctorTimeSlot s " +
+           "WHERE s.doctor.id IN :doctorIds AND s.available = true AND s.startTime > :after " +
+           "AND HOUR(s.startTime) * 60 + MINUTE(s.startTime) >= :fromMinute " +
+           "AND HOUR(s.startTime) * 60 + MINUTE(s.startTime) < :toMinute " +
+           "ORDER BY s.startTime, s.doctor.id")
+    List<DoctorTimeSlot> findFreeAfter(
+            Collection<Long> doctorIds,
+            LocalDateTime after,
+            int fromMinute,
+            int toMinute,
+            Limit limit);
+
+    // 🔹 Claim a free slot; 1 if this caller got it, 0 if it is taken or does not exist
+    @Modifying
+    @Query("UPDATE DoctorTimeSlot s SET s.available = false " +
+           "WHERE s.doctor.id = :doctorId AND s.startTime = :start AND s.available = true")
+    int claim(Long doctorId, LocalDateTime start);
+
+    // 🔹 Free a slot again (cancelled or moved appointment)
+    @Modifying
+    @Query("UPDATE DoctorTimeSlot s SET s.available = true " +
+           "WHERE s.doctor.id = :doctorId AND s.startTime = :start")
+    int release(Long doctorId, LocalDateTime start);
+
+    boolean existsByDoctorIdAndStartTime(Long doctorId, LocalDateTime start);
+
+    // 🔹 Mark slots taken by appointments booked before the slots existed
+    @Modifying
+    @Query("UPDATE DoctorTimeSlot s SET s.available = false " +
+           "WHERE s.doctor.id = :doctorId " +
+           "AND s.startTime >= :start AND s.startTime < :end AND s.available = true " +
+           "AND EXISTS (SELECT 1 FROM Appointment a " +
+           "WHERE a.doctor.id = :doctorId AND a.appointmentTime = s.startTime)")
+    int markBooked(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    // 🔹 Drop free slots from a time on (template changed); taken ones stay with their appointments
+    @Modifying
+    @Query("DELETE FROM DoctorTimeSlot s " +
+           "WHERE s.doctor.id = :doctorId AND s.startTime >= :from AND s.available = true")
+    int deleteFreeFrom(Long doctorId, LocalDateTime from);
+
+    // 🔹 Start of each doctor's last materialized slot before a time
+    @Query("SELECT s.doctor.id, MAX(s.startTime) FROM DoctorTimeSlot s WHERE s.startTime < :before GROUP BY s.doctor.id")
+    List<Object[]> findLastStartPerDoctor(LocalDateTime before);
+}
@@ -1,6 +1,11 @@
 package com.project.back_end.repo;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.project.back_end.models.Patient;
@@ -12,5 +17,20 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Patient findByEmail(String email);
 
     // Find a patient by email OR phone (either can match)
+    // Registration checks use existsByEmail / existsByPhone instead: each stays on its unique index
     Patient findByEmailOrPhone(String email, String phone);
+
+    // Is the email already registered (uk_patient_email)
+    boolean existsByEmail(String email);
+
+    // Is the phone already registered (uk_patient_phone)
+    boolean existsByPhone(String phone);
+
+    // {id, email, phone} of the patients after an id, in id order: keyset pages to seed the registration filter
+    @Query("SELECT p.id, p.email, p.phone FROM Patient p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findContactsAfter(Long afterId, Limit limit);
+
+    // {email, phone} of the patients with one of these emails or phones: one query per bulk import chunk
+    @Query("SELECT p.email, p.phone FROM Patient p WHERE p.email IN :emails OR p.phone IN :phones")
+    List<Object[]> findContactsIn(Collection<String> emails, Collection<String> phones);
 }
@@ -1,8 +1,10 @@
 package com.project.back_end.repo;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.project.back_end.models.Prescription;
@@ -12,4 +14,8 @@ public interface PrescriptionRepository extends MongoRepository<Prescription, St
 
     // 🔹 Find all prescriptions linked to a specific appointment
     List<Prescription> findByAppointmentId(Long appointmentId);
+
+    // 🔹 Which of these appointments have a prescription (one round trip, only appointmentId is read)
+    @Query(value = "{ 'appointmentId': { $in: ?0 } }", fields = "{ 'appointmentId': 1 }")
+    List<Prescription> findAppointmentIdsByAppointmentIdIn(Collection<Long> appointmentIds);
 }
@@ -1,13 +1,18 @@
 package com.project.back_end.services;
 
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.events.AppointmentChangedEvent;
 import com.project.back_end.models.Appointment;
 //import com.project.back_end.models.Doctor;
 //import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
-import jakarta.transaction.Transactional;
+import com.project.back_end.sharding.AppointmentShards;
+import org.springframework.transaction.annotation.Transactional;
 //import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -17,6 +22,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Service // 1. Mark this as a Spring-managed service component
+@Timed(value = "clinic.service", histogram = true)
 public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
@@ -24,23 +30,50 @@ public class AppointmentService {
     private final DoctorRepository doctorRepository;
     @SuppressWarnings("unused")
     private final PatientRepository patientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppointmentShards appointmentShards;
+    private final TimeSlotService timeSlotService;
+    private final PatientNameIndex patientNameIndex;
 
     // 2. Constructor injection
     
     //@Autowired
     public AppointmentService(AppointmentRepository appointmentRepository,
                               DoctorRepository doctorRepository,
-                              PatientRepository patientRepository) {
+                              PatientRepository patientRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              AppointmentShards appointmentShards,
+                              TimeSlotService timeSlotService,
+                              PatientNameIndex patientNameIndex) {
         this.appointmentRepository = appointmentRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
+        this.eventPublisher = eventPublisher;
+        this.appointmentShards = appointmentShards;
+        this.timeSlotService = timeSlotService;
+        this.patientNameIndex = patientNameIndex;
     }
 
-    // 4. Book appointment
+    // 3. Changes are pushed to the doctor's dashboard after commit (see AppointmentStreamHub)
+    private void publish(AppointmentChangedEvent.Type type, Appointment appointment) {
+        LocalDateTime time = appointment.getAppointmentTime();
+        eventPublisher.publishEvent(new AppointmentChangedEvent(type, appointment.getId(),
+                appointment.getDoctor().getId(), time.toLocalDate(), time.toLocalTime(),
+                appointment.getStatus(), appointment.getPatient() != null ? appointment.getPatient().getId() : null));
+    }
+
+    // 4. Book appointment: 1 = booked, -1 = slot taken or not offered, 0 = failed
     @Transactional
     public int bookAppointment(Appointment appointment) {
         try {
-            appointmentRepository.save(appointment);
+            Long doctorId = appointment.getDoctor().getId();
+            Appointment saved = appointmentShards.onDoctorShard(doctorId, () -> {
+                // The conditional update on the slot row decides between concurrent bookings
+                if (timeSlotService.claim(doctorId, appointment.getAppointmentTime()) != 1) return null;
+                return appointmentRepository.save(appointment);
+            });
+            if (saved == null) return -1;
+            publish(AppointmentChangedEvent.Type.BOOKED, saved);
             return 1;
         } catch (Exception e) {
             e.printStackTrace();
@@ -51,6 +84,11 @@ public class AppointmentService {
     // 5. Update appointment
     @Transactional
     public String updateAppointment(Long appointmentId, Appointment updatedAppointment, Long patientId) {
+        return appointmentShards.onAppointmentShard(appointmentId,
+                () -> updateOnShard(appointmentId, updatedAppointment, patientId));
+    }
+
+    private String updateOnShard(Long appointmentId, Appointment updatedAppointment, Long patientId) {
         Optional<Appointment> optional = appointmentRepository.findById(appointmentId);
         if (optional.isEmpty()) return "Appointment not found";
 
@@ -62,6 +100,12 @@ public class AppointmentService {
         LocalDateTime newTime = updatedAppointment.getAppointmentTime();
         Long doctorId = updatedAppointment.getDoctor().getId();
 
+        // A transaction stays on one shard: moving to a doctor kept elsewhere is a cancel and a new booking
+        if (appointmentShards.enabled()
+                && !appointmentShards.shardOf(doctorId).equals(appointmentShards.shardOf(existing.getDoctor().getId()))) {
+            return "Appointment cannot be moved to this doctor, please cancel and book again";
+        }
+
         // Check for time conflict
         List<Appointment> conflicts = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
                 doctorId,
@@ -71,19 +115,35 @@ public class AppointmentService {
 
         if (!conflicts.isEmpty()) return "Doctor is not available at the selected time";
 
+        Long previousDoctorId = existing.getDoctor().getId();
+        LocalDateTime previousTime = existing.getAppointmentTime();
+        LocalDate previousDate = previousTime.toLocalDate();
+
+        if (!previousDoctorId.equals(doctorId) || !previousTime.equals(newTime)) {
+            if (timeSlotService.claim(doctorId, newTime) != 1) return "Doctor is not available at the selected time";
+            timeSlotService.release(previousDoctorId, previousTime);
+        }
+
         // Update and save
         existing.setDoctor(updatedAppointment.getDoctor());
         existing.setAppointmentTime(updatedAppointment.getAppointmentTime());
         existing.setStatus(updatedAppointment.getStatus());
 
         appointmentRepository.save(existing);
+
+        if (!previousDoctorId.equals(doctorId) || !previousDate.equals(newTime.toLocalDate())) {
+            eventPublisher.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Type.MOVED,
+                    appointmentId, previousDoctorId, previousDate, null, null, patientId));
+        }
+        publish(AppointmentChangedEvent.Type.UPDATED, existing);
         return "Appointment updated successfully";
     }
 
     // 6. Cancel appointment
     @Transactional
     public String cancelAppointment(Long appointmentId, Long patientId) {
-        Optional<Appointment> optional = appointmentRepository.findById(appointmentId);
+        Optional<Appointment> optional = appointmentShards.onAppointmentShard(appointmentId,
+                () -> appointmentRepository.findById(appointmentId));
         if (optional.isEmpty()) return "Appointment not found";
 
         Appointment appointment = optional.get();
@@ -92,29 +152,44 @@ public class AppointmentService {
         }
 
         appointmentRepository.delete(appointment);
+        Long doctorId = appointment.getDoctor().getId();
+        appointmentShards.onDoctorShard(doctorId, () -> {
+            timeSlotService.release(doctorId, appointment.getAppointmentTime());
+            return null;
+        });
+        publish(AppointmentChangedEvent.Type.CANCELLED, appointment);
         return "Appointment canceled successfully";
     }
 
     // 7. Get appointments for a doctor (optional filter by patient name)
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsForDoctorOnDate(Long doctorId, LocalDate date, String patientName) {
         LocalDateTime start = date.atStartOfDay();
         LocalDateTime end = start.plusDays(1);
 
-        if (patientName != null && !patientName.isEmpty()) {
-            return appointmentRepository.findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                    doctorId, patientName, start, end
-            );
-        } else {
-            return appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
-                    doctorId, start, end
-            );
-        }
+        return appointmentShards.onDoctorShard(doctorId, () -> {
+            if (patientName != null && !patientName.isBlank()) {
+                // Matched in memory (see PatientNameIndex), then read by primary key
+                List<Long> ids = patientNameIndex.search(doctorId, date, patientName, () ->
+                        appointmentRepository.findPatientNamesByDoctorIdAndAppointmentTimeRange(doctorId, start, end));
+                return ids.isEmpty() ? List.<Appointment>of() : appointmentRepository.findByIdInOrderByAppointmentTimeAsc(ids);
+            } else {
+                return appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
+                        doctorId, start, end
+                );
+            }
+        });
     }
 
     // 8. Change status of appointment
     @Transactional
     public void changeAppointmentStatus(Long appointmentId, int status) {
-        appointmentRepository.updateStatus(status, appointmentId);
+        appointmentShards.onAppointmentShard(appointmentId, () -> {
+            appointmentRepository.updateStatus(status, appointmentId);
+            return null;
+        });
+        // Doctor and day are left for the listener to look up, so the update stays one statement
+        eventPublisher.publishEvent(new AppointmentChangedEvent(AppointmentChangedEvent.Type.STATUS_CHANGED,
+                appointmentId, null, null, null, status, null));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,430 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.ImportReport;
+import com.project.back_end.events.DoctorDirectoryChangedEvent;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Registers doctors or patients in bulk from one upload, for onboarding a
+ * clinic.
+ *
+ * The body is read a line at a time: CSV with a header row, or NDJSON (one
+ * JSON object per line). A line past MAX_LINE_LENGTH characters is skipped
+ * and reported instead of being buffered whole. Each row is bound like a request body and checked
+ * against the entity's Bean Validation constraints. Rows are then handled in
+ * chunks of app.import.chunk-size. Each chunk takes one IN query for
+ * emails/phones already registered, then one transaction of batched JDBC
+ * inserts. A chunk that still hits a unique key (a concurrent registration)
+ * is retried row by row. Chunks that were written stay written; the report
+ * says which rows were not, and why.
+ */
+@Service // 1. Mark this as a Spring-managed service component
+@Timed(value = "clinic.service", histogram = true)
+public class BulkImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final TypeReference<Map<String, Object>> ROW = new TypeReference<>() {
+    };
+    private static final String INSERT_DOCTOR = "INSERT INTO doctors (name, specialty, email, password, phone) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_DOCTOR_TIME = "INSERT INTO doctor_available_times "
+            + "(doctor_id, available_times) VALUES (?, ?)";
+    private static final String INSERT_PATIENT = "INSERT INTO patients (name, email, password, phone, address) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UniquenessService uniquenessService;
+    private final TimeSlotService timeSlotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final int chunkSize;
+
+    // 2. Constructor injection
+    public BulkImportService(DoctorRepository doctorRepository,
+                             PatientRepository patientRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             UniquenessService uniquenessService,
+                             TimeSlotService timeSlotService,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                             @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.uniquenessService = uniquenessService;
+        this.timeSlotService = timeSlotService;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize = chunkSize;
+    }
+
+    // 3. Import doctors. CSV columns: name, specialty, email, password, phone, availableTimes
+    //    (entries separated by ';', e.g. "09:00;10:00-10:30")
+    public ImportReport importDoctors(InputStream body, Format format) throws IOException {
+        Progress progress = new Progress();
+        read(body, format, Doctor.class, progress, chunk -> {
+            List<Doctor> created = writeDoctors(chunk, progress);
+            if (!created.isEmpty()) timeSlotService.materializeHorizon(created);
+        });
+        if (progress.imported > 0) {
+            // The rows were written past Hibernate, which cannot know its cached doctor lists are stale
+            entityManagerFactory.ifAvailable(factory ->
+                    factory.unwrap(SessionFactory.class).getCache().evictQueryRegions());
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(null));
+        }
+        return progress.report();
+    }
+
+    // 4. Import patients. CSV columns: name, email, password, phone, address
+    public ImportReport importPatients(InputStream body, Format format) throws IOException {
+        Progress progress = new Progress();
+        read(body, format, Patient.class, progress, chunk -> writePatients(chunk, progress));
+        return progress.report();
+    }
+
+    // 5. Parse and validate rows, handing them over a chunk at a time
+    private <T> void read(InputStream body, Format format, Class<T> type, Progress progress,
+                          Consumer<List<Row<T>>> writer) throws IOException {
+        LineReader reader = new LineReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = null;
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        long line = 0;
+        for (String text; (text = reader.next()) != null; ) {
+            line++;
+            if (reader.tooLong) {
+                progress.fail(line, List.of("Row longer than " + MAX_LINE_LENGTH + " characters"));
+                continue;
+            }
+            if (line == 1 && text.startsWith("\uFEFF")) text = text.substring(1);
+            if (text.isBlank()) continue;
+            if (format == Format.CSV && header == null) {
+                header = parseCsvLine(text).stream().map(String::strip).toList();
+                continue;
+            }
+
+            T entity;
+            try {
+                Map<String, Object> fields = format == Format.CSV ? csvFields(header, text) : objectMapper.readValue(text, ROW);
+                entity = objectMapper.convertValue(fields, type);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                progress.fail(line, List.of("Unreadable row: " + rootMessage(e)));
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(entity);
+            if (!violations.isEmpty()) {
+                progress.fail(line, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .toList());
+                continue;
+            }
+
+            chunk.add(new Row<>(line, entity));
+            if (chunk.size() == chunkSize) {
+                writer.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) writer.accept(chunk);
+    }
+
+    // 6. One IN query for the chunk's emails, then one batch; returns the doctors created, with ids
+    private List<Doctor> writeDoctors(List<Row<Doctor>> chunk, Progress progress) {
+        Map<String, Row<Doctor>> byEmail = new LinkedHashMap<>();
+        for (Row<Doctor> row : chunk) {
+            Row<Doctor> first = byEmail.putIfAbsent(key(row.entity().getEmail()), row);
+            if (first != null) progress.fail(row.line(), List.of("email: already on line " + first.line()));
+        }
+
+        Set<String> registered = new HashSet<>();
+        for (Object[] hit : doctorRepository.findIdsByEmailIn(byEmail.values().stream()
+                .map(row -> row.entity().getEmail()).toList())) {
+            registered.add(key((String) hit[1]));
+        }
+        List<Row<Doctor>> fresh = new ArrayList<>();
+        for (Map.Entry<String, Row<Doctor>> entry : byEmail.entrySet()) {
+            if (registered.contains(entry.getKey())) {
+                progress.fail(entry.getValue().line(), List.of("email: already registered"));
+            } else {
+                fresh.add(entry.getValue());
+            }
+        }
+
+        List<Doctor> created = insert(fresh, this::insertDoctors, progress, "email: already registered");
+        created.forEach(doctor -> uniquenessService.registeredDoctor(doctor.getEmail()));
+        return created;
+    }
+
+    // 7. Same for patients, on email and phone
+    private void writePatients(List<Row<Patient>> chunk, Progress progress) {
+        Map<String, Long> emails = new HashMap<>();
+        Map<String, Long> phones = new HashMap<>();
+        List<Row<Patient>> unique = new ArrayList<>();
+        for (Row<Patient> row : chunk) {
+            List<String> messages = new ArrayList<>(2);
+            Long emailLine = emails.putIfAbsent(key(row.entity().getEmail()), row.line());
+            Long phoneLine = phones.putIfAbsent(row.entity().getPhone().strip(), row.line());
+            if (emailLine != null) messages.add("email: already on line " + emailLine);
+            if (phoneLine != null) messages.add("phone: already on line " + phoneLine);
+            if (messages.isEmpty()) unique.add(row);
+            else progress.fail(row.line(), messages);
+        }
+        if (unique.isEmpty()) return;
+
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhones = new HashSet<>();
+        for (Object[] hit : patientRepository.findContactsIn(
+                unique.stream().map(row -> row.entity().getEmail()).toList(),
+                unique.stream().map(row -> row.entity().getPhone()).toList())) {
+            takenEmails.add(key((String) hit[0]));
+            takenPhones.add(((String) hit[1]).strip());
+        }
+        List<Row<Patient>> fresh = new ArrayList<>();
+        for (Row<Patient> row : unique) {
+            List<String> messages = new ArrayList<>(2);
+            if (takenEmails.contains(key(row.entity().getEmail()))) messages.add("email: already registered");
+            if (takenPhones.contains(row.entity().getPhone().strip())) messages.add("phone: already registered");
+            if (messages.isEmpty()) fresh.add(row);
+            else progress.fail(row.line(), messages);
+        }
+
+        insert(fresh, this::insertPatients, progress, "email or phone: already registered")
+                .forEach(patient -> uniquenessService.registeredPatient(patient.getEmail(), patient.getPhone()));
+    }
+
+    // The whole chunk in one transaction; if a row was registered meanwhile, each row in its own
+    private <T> List<T> insert(List<Row<T>> rows, Consumer<List<T>> batch, Progress progress, String conflict) {
+        if (rows.isEmpty()) return List.of();
+        List<T> entities = rows.stream().map(Row::entity).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.accept(entities));
+            progress.imported += entities.size();
+            return entities;
+        } catch (DataIntegrityViolationException e) {
+            List<T> inserted = new ArrayList<>();
+            for (Row<T> row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> batch.accept(List.of(row.entity())));
+                    inserted.add(row.entity());
+                    progress.imported++;
+                } catch (DataIntegrityViolationException again) {
+                    progress.fail(row.line(), List.of(conflict));
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private void insertDoctors(List<Doctor> doctors) {
+        jdbcTemplate.batchUpdate(INSERT_DOCTOR, doctors, chunkSize, (statement, doctor) -> {
+            statement.setString(1, doctor.getName());
+            statement.setString(2, doctor.getSpecialty());
+            statement.setString(3, doctor.getEmail());
+            statement.setString(4, doctor.getPassword());
+            statement.setString(5, doctor.getPhone());
+        });
+        // Generated keys of a batch are not portable across drivers: read them back in one query
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : doctorRepository.findIdsByEmailIn(doctors.stream().map(Doctor::getEmail).toList())) {
+            ids.put(key((String) row[1]), (Long) row[0]);
+        }
+        List<Object[]> times = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            doctor.setId(ids.get(key(doctor.getEmail())));
+            if (doctor.getAvailableTimes() == null) continue;
+            for (String time : doctor.getAvailableTimes()) {
+                times.add(new Object[] { doctor.getId(), time });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_DOCTOR_TIME, times, chunkSize, (statement, row) -> {
+            statement.setLong(1, (Long) row[0]);
+            statement.setString(2, (String) row[1]);
+        });
+    }
+
+    private void insertPatients(List<Patient> patients) {
+        jdbcTemplate.batchUpdate(INSERT_PATIENT, patients, chunkSize, (statement, patient) -> {
+            statement.setString(1, patient.getName());
+            statement.setString(2, patient.getEmail());
+            statement.setString(3, patient.getPassword());
+            statement.setString(4, patient.getPhone());
+            statement.setString(5, patient.getAddress());
+        });
+    }
+
+    // Header name -> value; empty cells are absent, availableTimes is split on ';'
+    private static Map<String, Object> csvFields(List<String> header, String text) {
+        List<String> values = parseCsvLine(text);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " columns, found " + values.size());
+        }
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).strip();
+            if (value.isEmpty()) continue;
+            fields.put(header.get(i), "availableTimes".equals(header.get(i))
+                    ? Arrays.stream(value.split(";")).map(String::strip).filter(s -> !s.isEmpty()).toList()
+                    : value);
+        }
+        return fields;
+    }
+
+    // RFC 4180 fields on one line: quoted fields may hold commas and doubled quotes, not line breaks
+    static List<String> parseCsvLine(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("unterminated quoted field");
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Emails compare case-insensitively in the database (MySQL's default collation)
+    private static String key(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Exception e) {
+        Throwable root = e;
+        while (root.getCause() != null) root = root.getCause();
+        String message = root.getMessage();
+        // Jackson appends the source location on further lines
+        return message == null ? root.getClass().getSimpleName() : message.lines().findFirst().orElse(message);
+    }
+
+    private record Row<T>(long line, T entity) {
+    }
+
+    // Lines ending in \n or \r\n, each bounded by MAX_LINE_LENGTH: the rest of a longer line is
+    // read past without being kept, and tooLong is set for it
+    private static final class LineReader {
+
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean tooLong;
+
+        private LineReader(Reader in) {
+            this.in = in;
+        }
+
+        // The next line without its terminator, null at the end of the input
+        private String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(0, in.read(buffer, 0, buffer.length));
+                    position = 0;
+                    if (limit == 0) return read ? text() : null;
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') position++;
+                int room = MAX_LINE_LENGTH + 1 - line.length();
+                if (position - start > room) tooLong = true;
+                line.append(buffer, start, Math.min(position - start, room));
+                if (position < limit) {
+                    position++;
+                    return text();
+                }
+            }
+        }
+
+        private String text() {
+            if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') line.setLength(line.length() - 1);
+            if (line.length() > MAX_LINE_LENGTH) tooLong = true;
+            return line.toString();
+        }
+    }
+
+    private static final class Progress {
+
+        private int imported;
+        private int failed;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        private void fail(long line, List<String> messages) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ImportReport.RowError(line, messages));
+        }
+
+        private ImportReport report() {
+            errors.sort(Comparator.comparingLong(ImportReport.RowError::line));
+            return new ImportReport(imported, failed, errors);
+        }
+    }
+}
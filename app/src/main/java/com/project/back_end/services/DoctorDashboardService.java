@@ -0,0 +1,204 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.DashboardAppointment;
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.datasource.ReadYourWritesWindow;
+import com.project.back_end.datasource.ReplicaRoutingDataSource;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentFieldsRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.sharding.AppointmentShards;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Builds one day of the doctor dashboard from both datastores.
+ *
+ * The prescription lookup is keyed by appointment id, so the ids are read
+ * first (an index-only query). The appointment/patient join on MySQL and the
+ * prescription lookup on MongoDB then run side by side on a bounded pool,
+ * and the day costs the slower of the two instead of their sum.
+ *
+ * With a patient-name filter the ids come from the {@link PatientNameIndex}
+ * instead, and only the matching rows are read.
+ *
+ * With a sparse fieldset only the requested columns are read: the patient
+ * join and the prescription lookup are skipped when none of their fields
+ * are asked for.
+ *
+ * Not transactional on purpose: each branch takes its own connection only
+ * for as long as its query runs, and the request thread holds none while it
+ * waits.
+ */
+@Service // 1. Mark this as a Spring-managed service component
+@Timed(value = "clinic.service", histogram = true)
+public class DoctorDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorDashboardService.class);
+    private static final String PRESCRIBED = "prescribed";
+
+    // Properties a fields= parameter can ask for, in response order
+    public static final List<String> FIELDS = concat(AppointmentFieldsRepository.FIELDS, PRESCRIBED);
+
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final AppointmentShards appointmentShards;
+    private final PatientNameIndex patientNameIndex;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    // 2. Constructor injection
+    public DoctorDashboardService(AppointmentRepository appointmentRepository,
+                                  PrescriptionRepository prescriptionRepository,
+                                  AppointmentShards appointmentShards,
+                                  PatientNameIndex patientNameIndex,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.dashboard.pool-size:8}") int poolSize,
+                                  @Value("${app.dashboard.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.dashboard.timeout:5s}") Duration timeout) {
+        this.appointmentRepository = appointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.appointmentShards = appointmentShards;
+        this.patientNameIndex = patientNameIndex;
+        this.timeoutMillis = timeout.toMillis();
+
+        AtomicInteger threads = new AtomicInteger();
+        // Past the queue the request thread runs the branch itself: slower, never rejected
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "dashboard-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "dashboard");
+    }
+
+    // 3. One day of appointments with patient details and prescription status
+    public List<DashboardAppointment> getDay(Long doctorId, LocalDate date, String patientName) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        String nameFilter = patientName == null || patientName.isBlank() ? null : patientName.trim();
+
+        List<Long> ids = appointmentShards.onDoctorShard(doctorId, () -> nameFilter == null
+                ? appointmentRepository.findIdsByDoctorIdAndAppointmentTimeRange(doctorId, start, end)
+                : patientNameIndex.search(doctorId, date, nameFilter, () ->
+                        appointmentRepository.findPatientNamesByDoctorIdAndAppointmentTimeRange(doctorId, start, end)));
+        if (ids.isEmpty()) return List.of();
+
+        CompletableFuture<List<DashboardAppointment>> rows = supply(() -> appointmentShards.onDoctorShard(doctorId,
+                () -> nameFilter == null
+                        ? appointmentRepository.findDashboardRows(doctorId, start, end, null)
+                        : appointmentRepository.findDashboardRowsByIds(ids)));
+        CompletableFuture<Set<Long>> prescribed = prescribed(doctorId, date, ids);
+
+        return rows.thenCombine(prescribed, DoctorDashboardService::merge)
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .join();
+    }
+
+    // 4. Attach the prescription status to each row
+    private static List<DashboardAppointment> merge(List<DashboardAppointment> rows, Set<Long> prescribed) {
+        return rows.stream()
+                .map(row -> row.withPrescribed(prescribed == null ? null : prescribed.contains(row.id())))
+                .toList();
+    }
+
+    // 5. The same day with only the requested fields (see FIELDS)
+    public List<Map<String, Object>> getDay(Long doctorId, LocalDate date, String patientName, Set<String> fields) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        String nameFilter = patientName == null || patientName.isBlank() ? null : patientName.trim();
+        boolean withPrescribed = fields.contains(PRESCRIBED);
+
+        // The ids are needed up front only to filter by name or to look up prescriptions
+        List<Long> ids = appointmentShards.onDoctorShard(doctorId, () -> nameFilter != null
+                ? patientNameIndex.search(doctorId, date, nameFilter, () ->
+                        appointmentRepository.findPatientNamesByDoctorIdAndAppointmentTimeRange(doctorId, start, end))
+                : withPrescribed
+                        ? appointmentRepository.findIdsByDoctorIdAndAppointmentTimeRange(doctorId, start, end)
+                        : null);
+        if (ids != null && ids.isEmpty()) return List.of();
+
+        // Prescriptions are matched by id, so it is read even when not requested
+        Set<String> columns = new LinkedHashSet<>(fields);
+        columns.remove(PRESCRIBED);
+        if (withPrescribed) columns.add("id");
+
+        CompletableFuture<List<Map<String, Object>>> rows = supply(() -> appointmentShards.onDoctorShard(doctorId,
+                () -> appointmentRepository.findDashboardFields(columns, doctorId, start, end,
+                        nameFilter == null ? null : ids)));
+        if (!withPrescribed) {
+            return rows.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).join();
+        }
+
+        return rows.thenCombine(prescribed(doctorId, date, ids), (found, prescribed) -> {
+                    List<Map<String, Object>> merged = new ArrayList<>(found.size());
+                    for (Map<String, Object> row : found) {
+                        Object id = fields.contains("id") ? row.get("id") : row.remove("id");
+                        row.put(PRESCRIBED, prescribed == null ? null : prescribed.contains(id));
+                        merged.add(row);
+                    }
+                    return merged;
+                })
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .join();
+    }
+
+    private CompletableFuture<Set<Long>> prescribed(Long doctorId, LocalDate date, List<Long> ids) {
+        return supply(() ->
+                prescriptionRepository.findAppointmentIdsByAppointmentIdIn(ids).stream()
+                        .map(Prescription::getAppointmentId)
+                        .collect(Collectors.toSet()))
+                // The schedule is still useful without MongoDB; the status shows as unknown
+                .exceptionally(e -> {
+                    log.warn("Prescription lookup failed for doctor {} on {}", doctorId, date, e);
+                    return null;
+                });
+    }
+
+    private static List<String> concat(List<String> fields, String extra) {
+        List<String> all = new ArrayList<>(fields);
+        all.add(extra);
+        return List.copyOf(all);
+    }
+
+    // Primary or replica is decided here, on the request thread: a branch can still run after
+    // the request has finished (timed out, or queued), so it only takes the decision along
+    private <T> CompletableFuture<T> supply(Supplier<T> query) {
+        boolean primary = ReadYourWritesWindow.isOpenForCurrentRequest();
+        return CompletableFuture.supplyAsync(() -> primary ? ReplicaRoutingDataSource.onPrimary(query) : query.get(),
+                executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,45 +1,76 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.EarliestSlot;
+import com.project.back_end.events.DoctorDirectoryChangedEvent;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.services.TokenService;
-import jakarta.transaction.Transactional;
+import com.project.back_end.sharding.AppointmentShards;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
 @Service // 1. Mark as a Spring Service
+@Timed(value = "clinic.service", histogram = true)
 public class DoctorService {
 
+    private static final int MAX_EARLIEST = 50;
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppointmentShards appointmentShards;
+    private final TimeSlotService timeSlotService;
+    private final UniquenessService uniquenessService;
 
     // 2. Constructor Injection
     //@Autowired
     public DoctorService(DoctorRepository doctorRepository,
                          AppointmentRepository appointmentRepository,
-                         TokenService tokenService) {
+                         TokenService tokenService,
+                         ApplicationEventPublisher eventPublisher,
+                         AppointmentShards appointmentShards,
+                         TimeSlotService timeSlotService,
+                         UniquenessService uniquenessService) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.eventPublisher = eventPublisher;
+        this.appointmentShards = appointmentShards;
+        this.timeSlotService = timeSlotService;
+        this.uniquenessService = uniquenessService;
     }
 
-    // 3. Get availability of doctor for a specific date
-    @SuppressWarnings("unlikely-arg-type")
-    @Transactional
+    // 3. Get availability of doctor for a specific date: one read of the materialized slots,
+    //    or computed from the template for days not materialized (see TimeSlotService)
+    @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, Date date) {
+        LocalDate day = new java.sql.Date(date.getTime()).toLocalDate();
+        return appointmentShards.onDoctorShard(doctorId, () -> timeSlotService.freeSlots(doctorId, day)
+                .orElseGet(() -> availabilityOnShard(doctorId, date)));
+    }
+
+    // Runs on the doctor's shard, which also holds a copy of the doctor
+    private List<String> availabilityOnShard(Long doctorId, Date date) {
         Optional<Doctor> optionalDoctor = doctorRepository.findById(doctorId);
         if (optionalDoctor.isEmpty()) return Collections.emptyList();
 
         Doctor doctor = optionalDoctor.get();
-        List<String> allSlots = doctor.getAvailableTimes(); // assume Set<LocalTime>
 
         List<Appointment> bookedAppointments = appointmentRepository
                 .findByDoctorIdAndAppointmentTimeBetween(
@@ -48,25 +79,49 @@ public class DoctorService {
                         new java.sql.Timestamp(date.getTime()).toLocalDateTime().withHour(23).withMinute(59)
                 );
 
+        return freeSlots(doctor.getAvailableTimes(), bookedAppointments);
+    }
+
+    // 4. Start times ("HH:mm", sorted) of the doctor's template entries ("HH:mm" or "HH:mm-HH:mm")
+    //    not taken by a booked appointment, the same format as materialized days.
+    //    A slot is taken when an appointment starts at its start time
+    public static List<String> freeSlots(List<String> allSlots, List<Appointment> bookedAppointments) {
         Set<LocalTime> bookedSlots = bookedAppointments.stream()
                 .map(appt -> appt.getAppointmentTime().toLocalTime())
                 .collect(Collectors.toSet());
 
         return allSlots.stream()
-                .filter(slot -> !bookedSlots.contains(slot))
+                .map(DoctorService::startOf)
+                .filter(start -> start != null && !bookedSlots.contains(start))
+                .distinct()
                 .sorted()
+                .map(HH_MM::format)
                 .collect(Collectors.toList());
     }
 
-    // 5. Save doctor
-    @Transactional
+    // Start time of a template entry, null if it is not a time (never matches a booking)
+    private static LocalTime startOf(String slot) {
+        try {
+            return LocalTime.parse(slot.split("-")[0].strip());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // 5. Save doctor. The lookup is skipped for emails the registration filter has never seen;
+    //    the unique key on the email catches the rest (not @Transactional: a violation must not
+    //    leave a rollback-only transaction behind)
     public int saveDoctor(Doctor doctor) {
-        if (doctorRepository.findByEmail(doctor.getEmail()) != null) {
+        if (uniquenessService.doctorEmailTaken(doctor.getEmail())) {
             return -1; // Conflict
         }
         try {
             doctorRepository.save(doctor);
+            uniquenessService.registeredDoctor(doctor.getEmail());
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(doctor.getId()));
             return 1;
+        } catch (DataIntegrityViolationException e) {
+            return -1; // Registered concurrently, or on another node
         } catch (Exception e) {
             return 0;
         }
@@ -86,11 +141,13 @@ public class DoctorService {
         doctor.setAvailableTimes(updated.getAvailableTimes());
 
         doctorRepository.save(doctor);
+        uniquenessService.registeredDoctor(doctor.getEmail());
+        eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(id));
         return 1;
     }
 
     // 7. Get all doctors
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> getDoctors() {
         return doctorRepository.findAll();
     }
@@ -100,8 +157,13 @@ public class DoctorService {
     public int deleteDoctor(Long id) {
         if (!doctorRepository.existsById(id)) return -1;
         try {
-            appointmentRepository.deleteAllByDoctorId(id);
+            // Sharded, the appointments go first, in a transaction of their own on the doctor's shard
+            appointmentShards.inDoctorShardTransaction(id, () -> {
+                appointmentRepository.deleteAllByDoctorId(id);
+                return null;
+            });
             doctorRepository.deleteById(id);
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(id));
             return 1;
         } catch (Exception e) {
             return 0;
@@ -109,7 +171,7 @@ public class DoctorService {
     }
 
     // 9. Validate doctor credentials
-    @Transactional
+    @Transactional(readOnly = true)
     public String validateDoctor(String email, String password) {
         Doctor doctor = doctorRepository.findByEmail(email);
         if (doctor == null || !doctor.getPassword().equals(password)) {
@@ -119,13 +181,13 @@ public class DoctorService {
     }
 
     // 10. Find doctors by name
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> findDoctorByName(String name) {
         return doctorRepository.findByNameLike("%" + name + "%");
     }
 
     // 11. Filter by name, specialty, and time
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorsByNameSpecialtyAndTime(String name, String specialty, String timePeriod) {
         List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
         return filterDoctorsByTime(doctors, timePeriod);
@@ -135,7 +197,8 @@ public class DoctorService {
     public List<Doctor> filterDoctorsByTime(List<Doctor> doctors, String timePeriod) {
         return doctors.stream().filter(doctor ->
                 doctor.getAvailableTimes().stream().anyMatch(timeStr -> {
-                    LocalTime time = LocalTime.parse(timeStr);
+                    LocalTime time = startOf(timeStr);
+                    if (time == null) return false;
                     return timePeriod.equalsIgnoreCase("AM") ? time.isBefore(LocalTime.NOON)
                             : time.isAfter(LocalTime.NOON);
                 })
@@ -143,35 +206,77 @@ public class DoctorService {
     }
 
     // 13. Filter by name and time
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorByNameAndTime(String name, String timePeriod) {
         List<Doctor> doctors = doctorRepository.findByNameLike("%" + name + "%");
         return filterDoctorsByTime(doctors, timePeriod);
     }
 
     // 14. Filter by name and specialty
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorByNameAndSpecialty(String name, String specialty) {
         return doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
     }
 
     // 15. Filter by specialty and time
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorByTimeAndSpecialty(String specialty, String timePeriod) {
         List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
         return filterDoctorsByTime(doctors, timePeriod);
     }
 
     // 16. Filter by specialty
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorBySpecialty(String specialty) {
         return doctorRepository.findBySpecialtyIgnoreCase(specialty);
     }
 
     // 17. Filter all doctors by time availability
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorsByTime(String timePeriod) {
         List<Doctor> allDoctors = doctorRepository.findAll();
         return filterDoctorsByTime(allDoctors, timePeriod);
     }
-}
\ No newline at end of file
+
+    // 18. Resolve the doctor behind a token (null if it does not belong to one)
+    // Doctor login issues tokens for the doctor id; older tokens carry the email
+    @Transactional(readOnly = true)
+    public Long resolveDoctorId(String token) {
+        try {
+            String subject = tokenService.extractEmail(token);
+            if (subject.chars().allMatch(Character::isDigit)) {
+                Long id = Long.valueOf(subject);
+                return doctorRepository.existsById(id) ? id : null;
+            }
+            Doctor doctor = doctorRepository.findByEmail(subject);
+            return doctor != null ? doctor.getId() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // 19. Earliest free slots across a specialty ("AM" / "PM" / anything else = all day).
+    //     Not one transaction: the slots are read with one query per shard
+    public List<EarliestSlot> findEarliestSlots(String specialty, String timePeriod, int limit) {
+        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
+        return timeSlotService.earliestFreeSlots(doctors, timePeriod, Math.max(1, Math.min(limit, MAX_EARLIEST)));
+    }
+
+    // 20. Whether a token belongs to a user of the given role ("admin", "doctor" or "patient").
+    //     Doctor tokens may carry the id, so they go through resolveDoctorId
+    @Transactional(readOnly = true)
+    public boolean isTokenFor(String token, String user) {
+        if ("doctor".equals(user)) {
+            return resolveDoctorId(token) != null;
+        }
+        return tokenService.validateToken(token, user);
+    }
+
+    // 21. Only the requested fields of the (optionally filtered) directory; see DoctorFieldsRepository.FIELDS.
+    //     availableTimes costs a second query and is skipped unless requested
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDoctorFields(Set<String> fields, String name, String specialty,
+                                                     String timePeriod) {
+        return doctorRepository.findFields(fields, name, specialty, timePeriod);
+    }
+}
@@ -0,0 +1,325 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.EarliestSlot;
+import com.project.back_end.events.DoctorDirectoryChangedEvent;
+import com.project.back_end.events.DoctorSlotsChangedEvent;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.DoctorTimeSlot;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.DoctorTimeSlotRepository;
+import com.project.back_end.sharding.AppointmentShards;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Materializes each doctor's availableTimes template into doctor_time_slots
+ * rows for a rolling horizon (app.slots.horizon-days from today), so that
+ * availability is one range read and a booking claims its slot with one
+ * conditional update.
+ *
+ * The template is the same for every day of the week. Entries are "HH:mm"
+ * (a slot of app.slots.length) or "HH:mm-HH:mm".
+ *
+ * Rows are inserted in JDBC batches, skipping those already present by the
+ * (doctor_id, start_time) key, so materializing a range twice is harmless;
+ * on MySQL (INSERT IGNORE) so is doing it on several nodes at once. Days that are not materialized yet (before the first run, past
+ * the horizon) fall back to computing from the template.
+ */
+@Service // 1. Mark this as a Spring-managed service component
+@Timed(value = "clinic.service", histogram = true)
+public class TimeSlotService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeSlotService.class);
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int NOON_MINUTE = 12 * 60;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    // Bound parameters per IN list of the earliest-slot query
+    private static final int IN_CHUNK = 1000;
+    // MySQL skips existing rows itself, also for concurrent inserts from other nodes
+    private static final String INSERT_SLOT_MYSQL = "INSERT IGNORE INTO doctor_time_slots "
+            + "(doctor_id, start_time, end_time, is_available) VALUES (?, ?, ?, TRUE)";
+    private static final String INSERT_SLOT = "INSERT INTO doctor_time_slots "
+            + "(doctor_id, start_time, end_time, is_available) SELECT ?, ?, ?, TRUE FROM DUAL "
+            + "WHERE NOT EXISTS (SELECT 1 FROM doctor_time_slots WHERE doctor_id = ? AND start_time = ?)";
+
+    private final DoctorTimeSlotRepository slotRepository;
+    private final DoctorRepository doctorRepository;
+    private final AppointmentShards appointmentShards;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate separate;
+    private final int horizonDays;
+    private final Duration defaultLength;
+    private final int batchSize;
+    private volatile String insertSlot;
+
+    // 2. Constructor injection
+    public TimeSlotService(DoctorTimeSlotRepository slotRepository,
+                           DoctorRepository doctorRepository,
+                           AppointmentShards appointmentShards,
+                           JdbcTemplate jdbcTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.slots.horizon-days:60}") int horizonDays,
+                           @Value("${app.slots.length:60m}") Duration defaultLength,
+                           @Value("${app.slots.batch-size:500}") int batchSize) {
+        this.slotRepository = slotRepository;
+        this.doctorRepository = doctorRepository;
+        this.appointmentShards = appointmentShards;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.horizonDays = horizonDays;
+        this.defaultLength = defaultLength;
+        this.batchSize = batchSize;
+    }
+
+    // 3. Free slots ("HH:mm") of one day, or empty if the day is not materialized.
+    //    Runs in the caller's transaction, on the doctor's shard
+    public Optional<List<String>> freeSlots(Long doctorId, LocalDate date) {
+        if (date.isAfter(LocalDate.now().plusDays(horizonDays))) return Optional.empty();
+
+        List<DoctorTimeSlot> day = slotRepository.findRange(doctorId, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay());
+        // A fully booked day still has its (taken) rows
+        if (day.isEmpty()) return Optional.empty();
+        return Optional.of(day.stream()
+                .filter(DoctorTimeSlot::isAvailable)
+                .map(slot -> slot.getStartTime().format(HH_MM))
+                .toList());
+    }
+
+    // 4. Claim the slot starting at {@code start}: 1 = claimed, 0 = already taken,
+    //    -1 = not a slot of the doctor's template. A day without slot rows (not materialized
+    //    yet, or past the horizon) is materialized first, so every booking goes through the
+    //    conditional update. Runs in the caller's transaction, on the doctor's shard
+    public int claim(Long doctorId, LocalDateTime start) {
+        int claimed = claimExisting(doctorId, start);
+        if (claimed != -1) return claimed;
+
+        Doctor doctor = doctorRepository.findById(doctorId).orElse(null);
+        if (doctor == null || parseTemplate(doctor).stream().noneMatch(slot -> slot[0].equals(start.toLocalTime()))) {
+            return -1;
+        }
+        // Up to the horizon from today, so the scheduled extension finds no gap before this day
+        LocalDate day = start.toLocalDate();
+        LocalDate today = LocalDate.now();
+        materialize(doctor, day.isAfter(horizonEnd()) || day.isBefore(today) ? day : today, day);
+        return claimExisting(doctorId, start);
+    }
+
+    private int claimExisting(Long doctorId, LocalDateTime start) {
+        if (slotRepository.claim(doctorId, start) == 1) return 1;
+        return slotRepository.existsByDoctorIdAndStartTime(doctorId, start) ? 0 : -1;
+    }
+
+    // 5. Free the slot of a cancelled or moved appointment
+    public void release(Long doctorId, LocalDateTime start) {
+        slotRepository.release(doctorId, start);
+    }
+
+    // 6. Insert the doctor's slots for [from, to] and mark those already booked.
+    //    Needs a transaction on the doctor's shard; returns the number of rows inserted
+    public int materialize(Doctor doctor, LocalDate from, LocalDate to) {
+        List<LocalTime[]> template = parseTemplate(doctor);
+        if (template.isEmpty() || from.isAfter(to)) return 0;
+
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            for (LocalTime[] slot : template) {
+                LocalDateTime start = day.atTime(slot[0]);
+                rows.add(new Object[] { doctor.getId(), Timestamp.valueOf(start),
+                        Timestamp.valueOf(slot[1] != null ? day.atTime(slot[1]) : start.plus(defaultLength)) });
+            }
+        }
+        int inserted = 0;
+        String sql = insertSlot();
+        for (int[] batch : jdbcTemplate.batchUpdate(sql, rows, batchSize, (statement, row) -> {
+            statement.setLong(1, (Long) row[0]);
+            statement.setTimestamp(2, (Timestamp) row[1]);
+            statement.setTimestamp(3, (Timestamp) row[2]);
+            if (sql == INSERT_SLOT) {
+                statement.setLong(4, (Long) row[0]);
+                statement.setTimestamp(5, (Timestamp) row[1]);
+            }
+        })) {
+            for (int count : batch) {
+                // Drivers may report a batched statement's count as unknown
+                inserted += count > 0 ? count : 0;
+            }
+        }
+        // Appointments that were booked before their slot existed
+        slotRepository.markBooked(doctor.getId(), from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        return inserted;
+    }
+
+    // 7. The template changed: drop the free future slots and materialize the horizon again,
+    //    then tell the availability caches (here and, through the bus, on other nodes). They
+    //    only hear of it once the new slots have committed, so no reload can pick up the old ones
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDoctorChanged(DoctorDirectoryChangedEvent event) {
+        Long doctorId = event.doctorId();
+        if (doctorId != null) {
+            LocalDate today = LocalDate.now();
+            try {
+                inDoctorShard(doctorId, () -> {
+                    Doctor doctor = doctorRepository.findById(doctorId).orElse(null);
+                    if (doctor == null) return 0; // deleted, its slots went with it
+                    slotRepository.deleteFreeFrom(doctorId, today.atStartOfDay());
+                    return materialize(doctor, today, today.plusDays(horizonDays - 1));
+                });
+            } catch (RuntimeException e) {
+                // The next extendHorizon run fills in; until then the days fall back to the template
+                log.warn("Could not materialize slots of doctor {}", doctorId, e);
+            }
+        }
+        eventPublisher.publishEvent(new DoctorSlotsChangedEvent(doctorId));
+    }
+
+    // 8. Keep every doctor materialized up to the horizon; only missing days are inserted
+    @Scheduled(initialDelayString = "${app.slots.initial-delay:PT30S}",
+               fixedDelayString = "${app.slots.extend-interval:PT6H}")
+    public void extendHorizon() {
+        LocalDate today = LocalDate.now();
+        LocalDate last = horizonEnd();
+
+        // Days booked past the horizon are materialized on their own; they do not count here
+        Map<Long, LocalDate> materializedUntil = new HashMap<>();
+        LocalDateTime before = last.plusDays(1).atStartOfDay();
+        for (Object[] row : appointmentShards.onAllShards(() -> slotRepository.findLastStartPerDoctor(before))) {
+            materializedUntil.put((Long) row[0], ((LocalDateTime) row[1]).toLocalDate());
+        }
+
+        int inserted = 0;
+        for (Doctor doctor : doctorRepository.findAll()) {
+            LocalDate until = materializedUntil.get(doctor.getId());
+            LocalDate from = until == null || until.isBefore(today) ? today : until.plusDays(1);
+            if (from.isAfter(last)) continue;
+            try {
+                inserted += inDoctorShard(doctor.getId(), () -> materialize(doctor, from, last));
+            } catch (RuntimeException e) {
+                log.warn("Could not extend slots of doctor {}", doctor.getId(), e);
+            }
+        }
+        if (inserted > 0) {
+            log.info("Materialized {} time slots up to {}", inserted, last);
+        }
+    }
+
+    private LocalDate horizonEnd() {
+        return LocalDate.now().plusDays(horizonDays - 1);
+    }
+
+    // 9. The k earliest free slots, from now, across the given doctors; "AM" / "PM" keep
+    //    slots starting before / after noon, as DoctorService.filterDoctorsByTime does.
+    //    One query per shard (per IN_CHUNK doctors) reads its k earliest free slots; the
+    //    k earliest overall are among them, so merging those pages is the whole search
+    public List<EarliestSlot> earliestFreeSlots(List<Doctor> doctors, String timePeriod, int k) {
+        if (doctors.isEmpty() || k <= 0) return List.of();
+
+        int fromMinute = "PM".equalsIgnoreCase(timePeriod) ? NOON_MINUTE + 1 : 0;
+        int toMinute = "AM".equalsIgnoreCase(timePeriod) ? NOON_MINUTE : MINUTES_PER_DAY;
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Doctor> byId = new HashMap<>();
+        Map<String, List<Long>> idsByShard = new HashMap<>();
+        for (Doctor doctor : doctors) {
+            byId.put(doctor.getId(), doctor);
+            idsByShard.computeIfAbsent(String.valueOf(appointmentShards.shardOf(doctor.getId())),
+                    shard -> new ArrayList<>()).add(doctor.getId());
+        }
+
+        List<DoctorTimeSlot> candidates = new ArrayList<>();
+        for (List<Long> ids : idsByShard.values()) {
+            for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CHUNK));
+                candidates.addAll(appointmentShards.onDoctorShard(chunk.get(0), () ->
+                        slotRepository.findFreeAfter(chunk, now, fromMinute, toMinute, Limit.of(k))));
+            }
+        }
+
+        return candidates.stream()
+                .sorted(Comparator.comparing(DoctorTimeSlot::getStartTime)
+                        .thenComparing(slot -> slot.getDoctor().getId()))
+                .limit(k)
+                .map(slot -> {
+                    Doctor doctor = byId.get(slot.getDoctor().getId());
+                    return new EarliestSlot(doctor.getId(), doctor.getName(), doctor.getSpecialty(),
+                            slot.getStartTime().toLocalDate(), slot.getStartTime().format(HH_MM));
+                })
+                .toList();
+    }
+
+    // 10. Materialize the horizon of doctors created outside JPA (bulk import), each on its shard
+    public int materializeHorizon(List<Doctor> doctors) {
+        LocalDate today = LocalDate.now();
+        int inserted = 0;
+        for (Doctor doctor : doctors) {
+            try {
+                inserted += inDoctorShard(doctor.getId(), () -> materialize(doctor, today, today.plusDays(horizonDays - 1)));
+            } catch (RuntimeException e) {
+                // extendHorizon fills in; until then the days fall back to the template
+                log.warn("Could not materialize slots of doctor {}", doctor.getId(), e);
+            }
+        }
+        return inserted;
+    }
+
+    private String insertSlot() {
+        if (insertSlot == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            insertSlot = "MySQL".equalsIgnoreCase(product) ? INSERT_SLOT_MYSQL : INSERT_SLOT;
+        }
+        return insertSlot;
+    }
+
+    private <T> T inDoctorShard(Long doctorId, Supplier<T> action) {
+        return appointmentShards.onDoctorShard(doctorId, () -> separate.execute(status -> action.get()));
+    }
+
+    // [start, end] per entry; end is null for "HH:mm" entries
+    private static List<LocalTime[]> parseTemplate(Doctor doctor) {
+        List<LocalTime[]> slots = new ArrayList<>();
+        if (doctor.getAvailableTimes() == null) return slots;
+        for (String entry : doctor.getAvailableTimes()) {
+            String[] parts = entry.trim().split("\\s*-\\s*");
+            try {
+                slots.add(new LocalTime[] { LocalTime.parse(parts[0]),
+                        parts.length > 1 ? LocalTime.parse(parts[1]) : null });
+            } catch (DateTimeParseException e) {
+                log.warn("Ignoring availability entry '{}' of doctor {}", entry, doctor.getId());
+            }
+        }
+        return slots;
+    }
+}
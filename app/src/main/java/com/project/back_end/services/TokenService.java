@@ -16,8 +16,10 @@ import com.project.back_end.repo.PatientRepository;
 
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
 
 @Component
+@Timed(value = "clinic.service", histogram = true)
 public class TokenService {
 
     @Value("${jwt.secret}")
@@ -89,6 +91,15 @@ public class TokenService {
         }
     }
 
+    // The admin behind a token, or null if it is invalid or does not belong to one
+    public Admin resolveAdmin(String token) {
+        try {
+            return adminRepository.findByUsername(extractEmail(token));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public String extractEmailFromToken(String token) {
         
         throw new UnsupportedOperationException("Unimplemented method 'extractEmailFromToken'");
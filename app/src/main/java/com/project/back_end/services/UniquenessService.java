@@ -0,0 +1,117 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Registration uniqueness checks (doctor email, patient email and phone).
+ *
+ * The unique constraints on the tables are what enforce uniqueness; an insert
+ * that violates one is answered as a conflict by the caller. This service
+ * only spares the lookup for values that are certainly new: a Bloom filter of
+ * every registered email and phone, seeded once at startup and fed by each
+ * registration on this node, answers "maybe taken" or "certainly not".
+ * A "maybe" costs one lookup on the column's unique index.
+ *
+ * Registrations on other nodes are not in this node's filter. Such a value
+ * skips the lookup and is caught by the constraint instead. Until the seed has
+ * finished, every value is looked up.
+ */
+@Service // 1. Mark this as a Spring-managed service component
+public class UniquenessService {
+
+    private static final Logger log = LoggerFactory.getLogger(UniquenessService.class);
+    private static final int SEED_PAGE = 5000;
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final BloomFilter contacts;
+    private volatile boolean seeded;
+
+    // 2. Constructor injection
+    public UniquenessService(DoctorRepository doctorRepository,
+                             PatientRepository patientRepository,
+                             @Value("${app.registration-filter.expected-entries:1000000}") long expectedEntries,
+                             @Value("${app.registration-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.contacts = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    // 3. Load every registered contact; registrations during the load go into the same filter.
+    //    Running it again adds what was registered elsewhere since
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long count = 0;
+        for (String email : doctorRepository.findAllEmails()) {
+            contacts.put(doctorEmail(email));
+            count++;
+        }
+        Long after = 0L;
+        List<Object[]> page;
+        do {
+            page = patientRepository.findContactsAfter(after, Limit.of(SEED_PAGE));
+            for (Object[] row : page) {
+                after = (Long) row[0];
+                contacts.put(patientEmail((String) row[1]));
+                contacts.put(patientPhone((String) row[2]));
+                count += 2;
+            }
+        } while (page.size() == SEED_PAGE);
+        seeded = true;
+        log.info("Registration filter seeded with {} contacts", count);
+    }
+
+    // 4. Is a doctor already registered with this email
+    public boolean doctorEmailTaken(String email) {
+        if (seeded && !contacts.mightContain(doctorEmail(email))) return false;
+        return doctorRepository.findByEmail(email) != null;
+    }
+
+    // 5. Is a patient already registered with this email or this phone; each is looked up on
+    //    its own (an OR of the two columns cannot use either unique index), and only if it may be taken
+    public boolean patientContactTaken(String email, String phone) {
+        if (!seeded || contacts.mightContain(patientEmail(email))) {
+            if (patientRepository.existsByEmail(email)) return true;
+        }
+        if (!seeded || contacts.mightContain(patientPhone(phone))) {
+            return patientRepository.existsByPhone(phone);
+        }
+        return false;
+    }
+
+    // 6. Record a registration (or a changed email); called before commit, a rollback only costs a lookup later
+    public void registeredDoctor(String email) {
+        contacts.put(doctorEmail(email));
+    }
+
+    public void registeredPatient(String email, String phone) {
+        contacts.put(patientEmail(email));
+        contacts.put(patientPhone(phone));
+    }
+
+    // Emails compare case-insensitively in the database (MySQL's default collation)
+    private static String doctorEmail(String email) {
+        return "d:" + Objects.toString(email, "").strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String patientEmail(String email) {
+        return "e:" + Objects.toString(email, "").strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String patientPhone(String phone) {
+        return "p:" + Objects.toString(phone, "").strip();
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.back_end.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Routes appointment work to the shard that owns it (see {@link ShardMap}).
+ *
+ * - by doctor: the doctor id picks the shard directly
+ * - by appointment id: the id's range names the shard that inserted it
+ *   (see {@link ShardMap#shardOfAppointment}), so nothing is probed
+ * - across shards: the query runs on every shard in parallel, each in its own
+ *   read-only transaction, and the results are concatenated
+ *
+ * Inside a transaction, routing must happen before its first statement.
+ * Without sharding configured every method simply runs its action.
+ */
+@Component
+public class AppointmentShards {
+
+    private final ShardMap shardMap;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate separate;
+    private final ExecutorService fanOut;
+
+    public AppointmentShards(ObjectProvider<ShardMap> shardMap,
+                             PlatformTransactionManager transactionManager) {
+        this.shardMap = shardMap.getIfAvailable();
+
+        this.readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (this.shardMap != null) {
+            AtomicInteger threads = new AtomicInteger();
+            this.fanOut = Executors.newFixedThreadPool(this.shardMap.shards().size(), r -> {
+                Thread thread = new Thread(r, "shard-fan-out-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.fanOut = null;
+        }
+    }
+
+    public boolean enabled() {
+        return shardMap != null;
+    }
+
+    /** The shard holding {@code doctorId}'s appointments, or {@code null} without sharding. */
+    public String shardOf(Long doctorId) {
+        return shardMap != null ? shardMap.shardFor(doctorId) : null;
+    }
+
+    /** Runs {@code action} on the shard of {@code doctorId}. */
+    public <T> T onDoctorShard(Long doctorId, Supplier<T> action) {
+        if (shardMap == null) return action.get();
+        return ShardRoutingDataSource.on(shardMap.shardFor(doctorId), action);
+    }
+
+    /**
+     * Runs {@code action} on the shard that numbered {@code appointmentId}; the
+     * action finds nothing if the id does not exist there.
+     */
+    public <T> T onAppointmentShard(Long appointmentId, Supplier<T> action) {
+        if (shardMap == null) return action.get();
+        return ShardRoutingDataSource.on(shardMap.shardOfAppointment(appointmentId), action);
+    }
+
+    /**
+     * Runs {@code action} in a transaction of its own on the shard of
+     * {@code doctorId}. Without sharding it joins the caller's transaction;
+     * with sharding it commits on its own, ahead of the caller.
+     */
+    public <T> T inDoctorShardTransaction(Long doctorId, Supplier<T> action) {
+        if (shardMap == null) return action.get();
+        return ShardRoutingDataSource.on(shardMap.shardFor(doctorId), () -> separate.execute(status -> action.get()));
+    }
+
+    /** Runs a read-only {@code query} on every shard in parallel and concatenates the results. */
+    public <T> List<T> onAllShards(Supplier<List<T>> query) {
+        if (shardMap == null) return query.get();
+
+        List<CompletableFuture<List<T>>> parts = shardMap.shards().stream()
+                .map(shard -> CompletableFuture.supplyAsync(
+                        () -> ShardRoutingDataSource.on(shard, () -> readOnly.execute(status -> query.get())),
+                        fanOut))
+                .toList();
+        List<T> results = new ArrayList<>();
+        parts.forEach(part -> results.addAll(part.join()));
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fanOut != null) fanOut.shutdown();
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.back_end.sharding;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which shard holds a doctor's appointments.
+ *
+ * Doctor ids are hashed into a fixed number of buckets and each bucket is
+ * assigned to a shard. Buckets default to round-robin over the shards; moving
+ * a bucket (after moving its appointments) is a one-line override, and adding a shard
+ * only moves the buckets reassigned to it rather than rehashing every doctor.
+ *
+ * Appointment ids name the shard that inserted them: shard i (home = 0)
+ * numbers its appointments from i * idRange, set once per shard with
+ * ALTER TABLE appointments AUTO_INCREMENT. Moving a bucket therefore means
+ * re-inserting its appointments on the target shard, not copying the rows.
+ */
+public final class ShardMap {
+
+    private final List<String> shards;
+    private final String[] buckets;
+    private final long idRange;
+
+    public ShardMap(List<String> shards, int bucketCount, Map<Integer, String> overrides, long idRange) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+        if (idRange < 1) throw new IllegalArgumentException("idRange must be >= 1, got " + idRange);
+        if (bucketCount < shards.size()) {
+            throw new IllegalArgumentException("Need at least one bucket per shard, got " + bucketCount);
+        }
+        this.shards = List.copyOf(shards);
+        this.idRange = idRange;
+        this.buckets = new String[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = shards.get(i % shards.size());
+        }
+        overrides.forEach((bucket, shard) -> {
+            if (bucket < 0 || bucket >= bucketCount) {
+                throw new IllegalArgumentException("Bucket " + bucket + " is outside 0.." + (bucketCount - 1));
+            }
+            if (!shards.contains(shard)) {
+                throw new IllegalArgumentException("Bucket " + bucket + " is mapped to unknown shard " + shard);
+            }
+            buckets[bucket] = shard;
+        });
+    }
+
+    /** The shard that holds the appointments of {@code doctorId}. */
+    public String shardFor(long doctorId) {
+        return buckets[bucketOf(doctorId)];
+    }
+
+    /** The shard that numbered {@code appointmentId}, or the home shard for an id outside every range. */
+    public String shardOfAppointment(long appointmentId) {
+        long index = appointmentId / idRange;
+        return appointmentId > 0 && index < shards.size() ? shards.get((int) index) : home();
+    }
+
+    public int bucketOf(long doctorId) {
+        return Math.floorMod(mix(doctorId), buckets.length);
+    }
+
+    /** All shards, the home shard first. */
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String home() {
+        return shards.get(0);
+    }
+
+    // Sequential ids would otherwise fill buckets in lockstep (MurmurHash3 fmix64)
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
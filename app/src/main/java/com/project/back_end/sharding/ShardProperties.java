@@ -0,0 +1,39 @@
+package com.project.back_end.sharding;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Appointment sharding settings. Sharding is only switched on when at least
+ * one shard besides the home database ({@code spring.datasource.*}) is listed.
+ *
+ * @param home      name of the shard served by {@code spring.datasource.*}
+ * @param shards    the other shards, in shard-map order after the home shard
+ * @param buckets   number of hash buckets doctors are spread over; fixed once
+ *                  data exists, since it decides every doctor's bucket
+ * @param bucketMap bucket → shard overrides, for moving buckets between shards;
+ *                  unlisted buckets go round-robin over all shards
+ * @param poolSize  maximum pool size of each additional shard
+ * @param idRange   appointment ids per shard: shard i (home = 0) numbers its
+ *                  appointments from i * idRange, so an id names its shard
+ */
+@ConfigurationProperties("app.sharding")
+public record ShardProperties(
+        @DefaultValue("home") String home,
+        List<Shard> shards,
+        @DefaultValue("256") int buckets,
+        Map<Integer, String> bucketMap,
+        @DefaultValue("10") int poolSize,
+        @DefaultValue("1000000000000") long idRange) {
+
+    public ShardProperties {
+        shards = shards == null ? List.of() : List.copyOf(shards);
+        bucketMap = bucketMap == null ? Map.of() : Map.copyOf(bucketMap);
+    }
+
+    public record Shard(String name, String url, String username, String password) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.back_end.sharding;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections from the shard selected with {@link #on}, or from the
+ * home shard when none is selected.
+ *
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * a transaction then only takes its connection at its first statement, so a
+ * {@code @Transactional} method can still pick the shard in its body. From
+ * the first statement on, the transaction stays on that shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards, String home) {
+        setTargetDataSources(Map.copyOf(shards));
+        setDefaultTargetDataSource(shards.get(home));
+        setLenientFallback(false);
+    }
+
+    /** Runs {@code action} with connections taken from {@code shard}. */
+    public static <T> T on(String shard, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.back_end.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical reads: while a computation for a key is in
+ * flight, other callers with the same key wait for it and share its result
+ * (or its exception) instead of running their own.
+ *
+ * Nothing is kept once the computation finishes, so this is not a cache: a
+ * caller arriving afterwards runs a fresh one. Only use it for idempotent
+ * reads, and treat the shared result as read-only.
+ *
+ * Shared calls are counted as "clinic.singleflight.shared" tagged with the name.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter shared;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.shared = Counter.builder("clinic.singleflight.shared")
+                .description("Calls served by another caller's in-flight computation")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V run(K key, Supplier<V> computation) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            shared.increment();
+            return await(leader);
+        }
+
+        try {
+            V value = computation.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.back_end.util;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@code fields=} request parameter of list endpoints: a comma-separated
+ * subset of the properties a response element can carry (sparse fieldsets).
+ *
+ * Parsed fields come back in the endpoint's own property order, so
+ * "name,id" and "id,name" select, cache and serialize the same way.
+ */
+public final class SparseFields {
+
+    private SparseFields() {
+    }
+
+    /**
+     * @param fields  the raw parameter, {@code null} when absent
+     * @param allowed the properties the endpoint can return, in response order
+     * @return the requested properties, or {@code null} (= all of them) when
+     *         the parameter is absent or blank
+     * @throws IllegalArgumentException for a property the endpoint does not have
+     */
+    public static Set<String> parse(String fields, List<String> allowed) {
+        if (fields == null || fields.isBlank()) return null;
+
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected any of " + allowed);
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) return null;
+
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String name : allowed) {
+            if (requested.contains(name)) ordered.add(name);
+        }
+        return ordered;
+    }
+}
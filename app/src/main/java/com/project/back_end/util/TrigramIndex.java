@@ -0,0 +1,118 @@
+package com.project.back_end.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable substring index over short texts (names), answering
+ * "contains, ignoring case and accents" like a {@code LIKE '%x%'} under
+ * MySQL's default collation.
+ *
+ * Every text is normalized and split into overlapping three-character grams.
+ * A query intersects the posting lists of its own grams, starting with the
+ * rarest, and only the remaining candidates are compared in full. Queries
+ * shorter than a gram scan the texts, which is what an index could do for
+ * them anyway.
+ *
+ * @param <K> key returned for each matching text
+ */
+public final class TrigramIndex<K> {
+
+    private static final int GRAM = 3;
+    private static final int[] NONE = new int[0];
+
+    private final List<K> keys;
+    private final String[] texts;
+    // gram -> ascending positions in keys/texts
+    private final Map<String, int[]> postings;
+
+    private TrigramIndex(List<K> keys, String[] texts, Map<String, int[]> postings) {
+        this.keys = keys;
+        this.texts = texts;
+        this.postings = postings;
+    }
+
+    /** Builds the index; {@code keys} and {@code texts} are parallel, a null text never matches. */
+    public static <K> TrigramIndex<K> of(List<K> keys, List<String> texts) {
+        if (keys.size() != texts.size()) {
+            throw new IllegalArgumentException("keys and texts differ in size");
+        }
+        String[] normalized = new String[texts.size()];
+        Map<String, List<Integer>> building = new HashMap<>();
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] = texts.get(i) == null ? "" : normalize(texts.get(i));
+            for (String gram : grams(normalized[i])) {
+                building.computeIfAbsent(gram, g -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(building.size() * 2);
+        building.forEach((gram, positions) ->
+                postings.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return new TrigramIndex<>(List.copyOf(keys), normalized, postings);
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    /** Keys whose text contains {@code query}, in the order they were given. */
+    public List<K> search(String query) {
+        String needle = normalize(query);
+        List<K> matches = new ArrayList<>();
+        if (needle.length() < GRAM) {
+            for (int i = 0; i < texts.length; i++) {
+                if (texts[i].contains(needle)) matches.add(keys.get(i));
+            }
+            return matches;
+        }
+
+        int[][] lists = grams(needle).stream()
+                .map(gram -> postings.getOrDefault(gram, NONE))
+                .sorted((a, b) -> Integer.compare(a.length, b.length))
+                .toArray(int[][]::new);
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        // Grams only say the pieces occur, not that they are adjacent
+        for (int position : candidates) {
+            if (texts[position].contains(needle)) matches.add(keys.get(position));
+        }
+        return matches;
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.strip(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "").replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -2,11 +2,12 @@
    Doctor Dashboard – Manage Appointments
    - Fetch & render today's appointments (or by selected date)
    - Filter by patient name
+   - Live updates for the selected day (server-sent events)
    - Uses modular services/components
 */
 
-import { getAllAppointments } from "./services/appointmentRecordService.js";
 import { createPatientRow } from "./components/patientRows.js";
+import { getDoctorDashboard, openAppointmentStream } from "./services/doctorServices.js";
 
 /* -----------------------------------------------------------
    Globals / Element refs
@@ -24,6 +25,12 @@ let token = localStorage.getItem("token") || "";
 // Patient name filter (string | "null")
 let patientName = "null";
 
+// Live change stream for the selected day (EventSource | null)
+let stream = null;
+
+// Pending debounced reload (timeout id | null)
+let reloadTimer = null;
+
 /* -----------------------------------------------------------
    Utilities
 ----------------------------------------------------------- */
@@ -43,15 +50,45 @@ function setLoadingRow(text = "Loading…") {
   if (!tableBody) return;
   tableBody.innerHTML = `
     <tr>
-      <td colspan="5" style="text-align:center;">${text}</td>
+      <td colspan="6" style="text-align:center;">${text}</td>
     </tr>`;
 }
 
+// Appointment.status: 0 = scheduled, 1 = completed
+const STATUS_LABELS = { 0: "Scheduled", 1: "Completed" };
+
+function setStatus(row, status) {
+  row.dataset.status = status;
+  const cell = row.querySelector(".appointment-status");
+  if (cell) cell.textContent = STATUS_LABELS[status] ?? "-";
+}
+
+// prescribed: true / false, or null when the prescription store could not be reached
+function setPrescribed(row, prescribed) {
+  const cell = row.querySelector(".prescription-cell");
+  if (!cell) return;
+  let label = cell.querySelector(".prescription-status");
+  if (!label) {
+    label = document.createElement("span");
+    label.className = "prescription-status";
+    cell.appendChild(label);
+  }
+  if (prescribed === null || prescribed === undefined) {
+    delete row.dataset.prescribed;
+    label.textContent = "?";
+    label.title = "Prescription status unavailable";
+  } else {
+    row.dataset.prescribed = prescribed;
+    label.textContent = prescribed ? "Prescribed" : "";
+    label.title = "";
+  }
+}
+
 function setMessageRow(text) {
   if (!tableBody) return;
   tableBody.innerHTML = `
     <tr>
-      <td colspan="5" style="text-align:center;">${text}</td>
+      <td colspan="6" style="text-align:center;">${text}</td>
     </tr>`;
 }
 
@@ -70,8 +107,8 @@ async function loadAppointments() {
   try {
     setLoadingRow("Loading appointments…");
 
-    // Fetch list from backend (shared for patient/doctor; backend uses token)
-    const appointments = await getAllAppointments(selectedDate, patientName, token);
+    // One call: appointments, patient details and prescription status (backend uses token)
+    const { doctorId, appointments } = await getDoctorDashboard(selectedDate, patientName, token);
 
     // Clear previous rows
     tableBody.innerHTML = "";
@@ -84,9 +121,17 @@ async function loadAppointments() {
 
     // Render each appointment row
     for (const appt of appointments) {
-      // appt is expected to include patient details (backend contract)
       // The createPatientRow component builds a <tr> element.
-      const row = createPatientRow(appt);
+      const patient = {
+        id: appt.patientId,
+        name: appt.patientName,
+        phone: appt.patientPhone,
+        email: appt.patientEmail
+      };
+      const row = createPatientRow(patient, appt.id, doctorId);
+      row.dataset.appointmentId = appt.id;
+      setStatus(row, appt.status);
+      setPrescribed(row, appt.prescribed);
       tableBody.appendChild(row);
     }
   } catch (err) {
@@ -95,6 +140,42 @@ async function loadAppointments() {
   }
 }
 
+/* -----------------------------------------------------------
+   Live updates: patch the table from pushed deltas
+----------------------------------------------------------- */
+
+// Several changes in a burst (e.g. a reschedule) cost one reload
+function scheduleReload() {
+  clearTimeout(reloadTimer);
+  reloadTimer = setTimeout(loadAppointments, 300);
+}
+
+function applyChange(delta) {
+  if (!tableBody || delta.date !== selectedDate) return;
+  const row = tableBody.querySelector(`tr[data-appointment-id="${delta.appointmentId}"]`);
+
+  switch (delta.type) {
+    case "CANCELLED":
+    case "MOVED":
+      if (row) row.remove();
+      if (!tableBody.querySelector("tr[data-appointment-id]")) {
+        setMessageRow("No Appointments found for today.");
+      }
+      break;
+    case "STATUS_CHANGED":
+      if (row) setStatus(row, delta.status);
+      break;
+    default:
+      // New or rescheduled rows need the patient details, which the delta does not carry
+      scheduleReload();
+  }
+}
+
+function connectStream() {
+  if (stream) stream.close();
+  stream = token ? openAppointmentStream(selectedDate, token, applyChange, scheduleReload) : null;
+}
+
 /* -----------------------------------------------------------
    Event wiring
 ----------------------------------------------------------- */
@@ -119,6 +200,7 @@ document.addEventListener("DOMContentLoaded", () => {
       selectedDate = toYMD(new Date());
       setDatePickerValue(selectedDate);
       loadAppointments();
+      connectStream();
     });
   }
 
@@ -133,6 +215,7 @@ document.addEventListener("DOMContentLoaded", () => {
       // Basic validation; if invalid, keep previous
       selectedDate = val || selectedDate;
       loadAppointments();
+      connectStream();
     });
   }
 
@@ -147,4 +230,5 @@ document.addEventListener("DOMContentLoaded", () => {
 
   // Initial fetch
   loadAppointments();
+  connectStream();
 });
@@ -1,16 +1,17 @@
 // appointmentRecordService.js
 import { API_BASE_URL } from "../config/config.js";
+import { getCompact, readBody } from "./cbor.js";
 const APPOINTMENT_API = `${API_BASE_URL}/appointments`;
 
 
 //This is for the doctor to get all the patient Appointments
 export async function getAllAppointments(date, patientName, token) {
-  const response = await fetch(`${APPOINTMENT_API}/${date}/${patientName}/${token}`);
+  const response = await getCompact(`${APPOINTMENT_API}/${date}/${patientName}/${token}`);
   if (!response.ok) {
     throw new Error("Failed to fetch appointments");
   }
 
-  return await response.json();
+  return await readBody(response);
 }
 
 export async function bookAppointment(appointment, token) {
@@ -0,0 +1,159 @@
+/* app/src/main/resources/static/js/services/cbor.js
+   Compact binary responses for the list-heavy dashboard calls.
+   - The API answers in CBOR (RFC 8949) when asked, JSON otherwise
+   - getCompact() asks for CBOR and decodes whichever format came back
+   - decodeCbor() covers what Jackson writes: ints, floats, strings, arrays,
+     maps (definite or indefinite length), simple values; tags are unwrapped
+*/
+
+const CBOR_TYPE = "application/cbor";
+const ACCEPT = `${CBOR_TYPE}, application/json;q=0.9`;
+
+/* -----------------------------------------------------------
+   GET a URL, preferring CBOR
+   Returns: the Response; read its body with readBody(res)
+----------------------------------------------------------- */
+export function getCompact(url, options = {}) {
+  const headers = { ...(options.headers || {}), Accept: ACCEPT };
+  return fetch(url, { ...options, method: "GET", headers });
+}
+
+/* -----------------------------------------------------------
+   Body of a response in either format
+   Returns: the decoded value (same shape as res.json()); an error
+            response that is plain text comes back as { message }
+----------------------------------------------------------- */
+export async function readBody(res) {
+  const type = res.headers.get("Content-Type") || "";
+  if (type.startsWith(CBOR_TYPE)) {
+    return decodeCbor(await res.arrayBuffer());
+  }
+  if (res.ok) return await res.json();
+
+  // Error messages are often plain strings, not JSON
+  const text = await res.text();
+  try {
+    return JSON.parse(text);
+  } catch {
+    return { message: text };
+  }
+}
+
+/* -----------------------------------------------------------
+   Decoder
+----------------------------------------------------------- */
+const BREAK = Symbol("break");
+const utf8 = new TextDecoder("utf-8");
+
+export function decodeCbor(buffer) {
+  const bytes = new Uint8Array(buffer);
+  const view = new DataView(bytes.buffer, bytes.byteOffset, bytes.byteLength);
+  let offset = 0;
+
+  function length(info) {
+    if (info < 24) return info;
+    if (info === 24) return view.getUint8(offset++);
+    if (info === 25) { const v = view.getUint16(offset); offset += 2; return v; }
+    if (info === 26) { const v = view.getUint32(offset); offset += 4; return v; }
+    if (info === 27) {
+      const v = view.getBigUint64(offset);
+      offset += 8;
+      return v <= BigInt(Number.MAX_SAFE_INTEGER) ? Number(v) : v;
+    }
+    if (info === 31) return -1; // indefinite
+    throw new Error(`CBOR: bad additional info ${info}`);
+  }
+
+  function chunks(major, info, read) {
+    const n = length(info);
+    if (n >= 0) return [read(n)];
+    const parts = [];
+    for (;;) {
+      const head = view.getUint8(offset++);
+      if (head === 0xff) return parts;
+      if (head >> 5 !== major) throw new Error("CBOR: mixed string chunks");
+      parts.push(read(length(head & 0x1f)));
+    }
+  }
+
+  function readBytes(n) {
+    const slice = bytes.subarray(offset, offset + n);
+    offset += n;
+    return slice;
+  }
+
+  function half(bits) {
+    const exp = (bits >> 10) & 0x1f;
+    const mant = bits & 0x3ff;
+    const sign = bits & 0x8000 ? -1 : 1;
+    if (exp === 0) return sign * mant * 2 ** -24;
+    if (exp === 31) return mant ? NaN : sign * Infinity;
+    return sign * (1 + mant / 1024) * 2 ** (exp - 15);
+  }
+
+  function item() {
+    const head = view.getUint8(offset++);
+    const major = head >> 5;
+    const info = head & 0x1f;
+
+    switch (major) {
+      case 0: return length(info);
+      case 1: {
+        const n = length(info);
+        return typeof n === "bigint" ? -1n - n : -1 - n;
+      }
+      case 2: {
+        const parts = chunks(2, info, n => readBytes(n).slice());
+        if (parts.length === 1) return parts[0];
+        const all = new Uint8Array(parts.reduce((sum, p) => sum + p.length, 0));
+        let at = 0;
+        for (const p of parts) { all.set(p, at); at += p.length; }
+        return all;
+      }
+      case 3: return chunks(3, info, n => utf8.decode(readBytes(n))).join("");
+      case 4: {
+        const n = length(info);
+        const list = [];
+        if (n >= 0) {
+          for (let i = 0; i < n; i++) list.push(item());
+        } else {
+          for (let v = item(); v !== BREAK; v = item()) list.push(v);
+        }
+        return list;
+      }
+      case 5: {
+        const n = length(info);
+        // No prototype: a "__proto__" key from the server is an ordinary property
+        const map = Object.create(null);
+        if (n >= 0) {
+          for (let i = 0; i < n; i++) { const k = item(); map[k] = item(); }
+        } else {
+          for (let k = item(); k !== BREAK; k = item()) map[k] = item();
+        }
+        return map;
+      }
+      case 6:
+        length(info); // tag number; the tagged value is returned as is
+        return item();
+      default:
+        switch (info) {
+          case 20: return false;
+          case 21: return true;
+          case 22: return null;
+          case 23: return undefined;
+          case 25: { const v = half(view.getUint16(offset)); offset += 2; return v; }
+          case 26: { const v = view.getFloat32(offset); offset += 4; return v; }
+          case 27: { const v = view.getFloat64(offset); offset += 8; return v; }
+          case 31: return BREAK;
+          default:
+            if (info < 24) return undefined;
+            if (info === 24) { offset++; return undefined; }
+            throw new Error(`CBOR: bad simple value ${info}`);
+        }
+    }
+  }
+
+  const value = item();
+  if (offset !== bytes.length) throw new Error("CBOR: trailing bytes");
+  return value;
+}
@@ -6,6 +6,7 @@
 */
 
 import { API_BASE_URL } from "../config/config.js";
+import { getCompact, readBody } from "./cbor.js";
 
 const DOCTOR_API = API_BASE_URL + "/doctor";
 
@@ -25,12 +26,12 @@ function fail(message = "Request failed", data = null) {
 ----------------------------------------------------------- */
 export async function getDoctors() {
   try {
-    const res = await fetch(DOCTOR_API, { method: "GET" });
+    const res = await getCompact(DOCTOR_API);
     if (!res.ok) {
       console.error("getDoctors: HTTP", res.status);
       return [];
     }
-    const payload = await res.json();
+    const payload = await readBody(res);
     // Accept common shapes: { doctors: [...] } or direct array
     if (Array.isArray(payload)) return payload;
     if (Array.isArray(payload?.doctors)) return payload.doctors;
@@ -115,12 +116,12 @@ export async function filterDoctors(name, time, specialty) {
   const url = `${DOCTOR_API}/filter/${n}/${t}/${s}`;
 
   try {
-    const res = await fetch(url, { method: "GET" });
+    const res = await getCompact(url);
     if (!res.ok) {
       console.error("filterDoctors: HTTP", res.status);
       return [];
     }
-    const payload = await res.json();
+    const payload = await readBody(res);
     if (Array.isArray(payload)) return payload;
     if (Array.isArray(payload?.doctors)) return payload.doctors;
     return [];
@@ -129,3 +130,54 @@ export async function filterDoctors(name, time, specialty) {
     return [];
   }
 }
+
+/* -----------------------------------------------------------
+   One day of the logged-in doctor's dashboard, in a single call
+   Params: date ("YYYY-MM-DD"), patientName (string | "null"), token
+   Returns: { doctorId, date, appointments: Array<{ id, appointmentTime, status,
+            patientId, patientName, patientPhone, patientEmail, prescribed }> }
+   NOTE: prescribed is null when prescriptions could not be loaded.
+----------------------------------------------------------- */
+export async function getDoctorDashboard(date, patientName, token) {
+  const name = patientName && patientName !== "null" ? encodeURIComponent(patientName) : "null";
+  const res = await getCompact(`${DOCTOR_API}/dashboard/${date}/${name}/${token}`);
+  if (!res.ok) {
+    throw new Error(`Failed to load dashboard (HTTP ${res.status})`);
+  }
+  return await readBody(res);
+}
+
+/* -----------------------------------------------------------
+   Live appointment changes for one day of the logged-in doctor
+   Params: date ("YYYY-MM-DD"), token, onChange(delta), onReload()
+   Returns: the EventSource (call .close() when the day changes)
+   NOTE: delta = { type, appointmentId, doctorId, date, time, status, patientId }
+         type is BOOKED | UPDATED | MOVED | CANCELLED | STATUS_CHANGED.
+         The browser reconnects on its own; changes made while it was
+         disconnected are not replayed, so onReload should reload. It is
+         also called for a "reload" event: the day changed on another node,
+         which sends no delta.
+----------------------------------------------------------- */
+export function openAppointmentStream(date, token, onChange, onReload) {
+  const source = new EventSource(`${DOCTOR_API}/appointments/stream/${date}/${token}`);
+  let opened = false;
+
+  source.addEventListener("open", () => {
+    if (opened && typeof onReload === "function") onReload();
+    opened = true;
+  });
+
+  source.addEventListener("reload", () => {
+    if (typeof onReload === "function") onReload();
+  });
+
+  source.addEventListener("appointment", (e) => {
+    try {
+      onChange(JSON.parse(e.data));
+    } catch (err) {
+      console.error("openAppointmentStream: bad event", err);
+    }
+  });
+
+  return source;
+}
@@ -1,5 +1,6 @@
 // prescriptionServices.js
 import { API_BASE_URL } from '../config/config.js'
+import { getCompact, readBody } from './cbor.js'
 
 const PRESCRITION_API = API_BASE_URL + "/prescription"
 export async function savePrescription(prescription, token) {
@@ -22,20 +23,15 @@ export async function savePrescription(prescription, token) {
 
 export async function getPrescription(appointmentId, token) {
   try {
-    const response = await fetch(`${PRESCRITION_API}/${appointmentId}/${token}`, {
-      method: "GET",
-      headers: {
-        "Content-Type": "application/json"
-      }
-    });
+    const response = await getCompact(`${PRESCRITION_API}/${appointmentId}/${token}`);
 
     if (!response.ok) {
-      const errorData = await response.json();
+      const errorData = await readBody(response);
       console.error("Failed to fetch prescription:", errorData);
       throw new Error(errorData.message || "Unable to fetch prescription");
     }
 
-    const result = await response.json();
+    const result = await readBody(response);
     console.log(result)
     console.log(result)
     return result; // This should be your prescription object
@@ -0,0 +1,90 @@
+package com.project.back_end.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsBurstThenRefillsAtRate() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(2, 3, now);
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isEqualTo(SECOND / 2);
+
+        assertThat(bucket.tryAcquire(now + SECOND / 2)).isZero();
+        assertThat(bucket.tryAcquire(now + SECOND / 2)).isPositive();
+        assertThat(bucket.isIdle(now + 2 * SECOND)).isTrue();
+    }
+
+    @Test
+    void admitsExactlyBurstUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0.001, 100, 0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (bucket.tryAcquire(0) == 0) admitted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admitted).hasValue(100);
+    }
+
+    @Test
+    void concurrencyLimiterRejectsOverLimitAndFreesOnRelease() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void keyedLimiterDropsIdleBucketsWhenFull() throws InterruptedException {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1000, 1, 2);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        Thread.sleep(5);
+
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keyedLimiterSharesAnOverflowBucketPastMaxKeys() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 2);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("d")).isPositive();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,148 @@
+package com.project.back_end.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load driver used to compare the default platform-thread
+ * mode with the "virtual-threads" profile.
+ *
+ * Every client keeps exactly one request in flight, so the offered concurrency
+ * is fixed and the server's thread model decides throughput and tail latency.
+ *
+ * Usage (against an already running instance):
+ *   java -cp target/test-classes com.project.back_end.bench.ThreadModeBenchmark \
+ *        [baseUrl] [concurrency] [durationSeconds] [path,path,...] [label]
+ *
+ * scripts/compare-thread-modes.sh boots both modes and runs this class twice.
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String[] paths = (args.length > 3 ? args[3] : "/doctor/all,/doctor/filter?speciality=Cardiology").split(",");
+        String label = args.length > 4 ? args[4] : "run";
+
+        Result result = run(baseUrl, concurrency, Duration.ofSeconds(5), Duration.ofSeconds(durationSeconds), paths);
+        System.out.println(result.toJson(label, concurrency));
+    }
+
+    public static Result run(String baseUrl, int concurrency, Duration warmup, Duration measure, String[] paths)
+            throws InterruptedException {
+        ExecutorService io = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(io)
+                .build();
+
+        long startMeasure = System.nanoTime() + warmup.toNanos();
+        long endMeasure = startMeasure + measure.toNanos();
+
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+
+        for (int c = 0; c < concurrency; c++) {
+            int offset = c;
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            clients.execute(() -> {
+                try {
+                    int i = offset;
+                    while (System.nanoTime() < endMeasure) {
+                        String path = paths[i++ % paths.length];
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            long t1 = System.nanoTime();
+                            if (t0 >= startMeasure && t1 <= endMeasure) {
+                                // 401, 404 and 429 are errors too, not latency samples
+                                if (response.statusCode() < 200 || response.statusCode() >= 400) {
+                                    errors.incrementAndGet();
+                                } else {
+                                    recorder.record(t1 - t0);
+                                }
+                            }
+                        } catch (Exception e) {
+                            if (t0 >= startMeasure) errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        clients.shutdown();
+        io.shutdown();
+
+        // done.await() makes every recorder's writes visible here
+        long[] all = recorders.stream()
+                .flatMapToLong(r -> Arrays.stream(r.values, 0, r.size))
+                .sorted()
+                .toArray();
+        return new Result(all, errors.get(), measure);
+    }
+
+    // Per-client buffer, only touched by its own client thread
+    private static final class LatencyRecorder {
+        long[] values = new long[1024];
+        int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+
+    public static final class Result {
+        private final long[] sortedNanos;
+        private final long errors;
+        private final Duration measure;
+
+        Result(long[] sortedNanos, long errors, Duration measure) {
+            this.sortedNanos = sortedNanos;
+            this.errors = errors;
+            this.measure = measure;
+        }
+
+        public double throughput() {
+            return sortedNanos.length / (measure.toMillis() / 1000.0);
+        }
+
+        public double percentileMillis(double p) {
+            if (sortedNanos.length == 0) return 0;
+            int index = (int) Math.ceil(p / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+        }
+
+        public String toJson(String label, int concurrency) {
+            return String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,"
+                            + "\"throughput\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                    label, concurrency, sortedNanos.length, errors,
+                    throughput(), percentileMillis(50), percentileMillis(99), percentileMillis(100));
+        }
+    }
+}
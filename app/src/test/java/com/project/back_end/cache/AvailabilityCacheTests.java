@@ -0,0 +1,75 @@
+package com.project.back_end.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvailabilityCacheTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+    private final AvailabilityCache cache = new AvailabilityCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 16);
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void evictingAnotherDayKeepsALoadInFlight() throws Exception {
+        loadWhile(1L, MONDAY, () -> cache.evict(1L, MONDAY.plusDays(1)));
+        loadWhile(1L, MONDAY, () -> cache.evict(2L, MONDAY));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictingTheSameDayDiscardsTheLoadInFlight() throws Exception {
+        loadWhile(1L, MONDAY, () -> cache.evict(1L, MONDAY));
+        loadWhile(1L, MONDAY, () -> cache.evictDoctor(1L));
+        loadWhile(1L, MONDAY, cache::clear);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    // Reads the day, running `meanwhile` while its load (if it misses) is in flight
+    private void loadWhile(Long doctorId, LocalDate date, Runnable meanwhile) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<String>> read = pool.submit(() -> cache.get(doctorId, date, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return List.of("09:00");
+        }));
+
+        if (started.await(1, TimeUnit.SECONDS)) {
+            meanwhile.run();
+            release.countDown();
+        }
+        assertThat(read.get(5, TimeUnit.SECONDS)).containsExactly("09:00");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
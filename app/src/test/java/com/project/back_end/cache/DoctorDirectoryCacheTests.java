@@ -0,0 +1,105 @@
+package com.project.back_end.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.project.back_end.models.Doctor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DoctorDirectoryCacheTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DoctorDirectoryCache cache = new DoctorDirectoryCache(objectMapper, new SimpleMeterRegistry(), 16);
+
+    @Test
+    void filterKeysTellEveryParameterSetApart() {
+        assertThat(DoctorDirectoryCache.key("filter", null, "AM", null))
+                .isNotEqualTo(DoctorDirectoryCache.key("filter", "null", "AM", null));
+        assertThat(DoctorDirectoryCache.key("filter", "a|b", "c", null))
+                .isNotEqualTo(DoctorDirectoryCache.key("filter", "a", "b|c", null));
+        assertThat(DoctorDirectoryCache.key("filter", "1|a", "", null))
+                .isNotEqualTo(DoctorDirectoryCache.key("filter", "", "1|a", null));
+        assertThat(DoctorDirectoryCache.key("filter", "", null, null))
+                .isNotEqualTo(DoctorDirectoryCache.key("filter", null, "", null));
+    }
+
+    @Test
+    void cborCarriesTheSameDirectoryInFewerBytes() throws Exception {
+        DoctorDirectoryCache.CachedResponse cached = cache.get("all", this::doctors);
+
+        assertThat(new CBORMapper().readTree(cached.cbor().bytes()))
+                .isEqualTo(objectMapper.readTree(cached.json().bytes()));
+        assertThat(cached.cbor().bytes().length).isLessThan(cached.json().bytes().length);
+        assertThat(cached.cbor().etag()).isNotEqualTo(cached.json().etag());
+    }
+
+    @Test
+    void cborIsServedOnlyWhenPreferred() throws Exception {
+        DoctorDirectoryCache.CachedResponse cached = cache.get("all", this::doctors);
+
+        MockHttpServletResponse cbor = write(cached, "application/cbor, application/json;q=0.9");
+        assertThat(cbor.getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+        assertThat(cbor.getContentAsByteArray()).isEqualTo(cached.cbor().bytes());
+        assertThat(cbor.getHeader(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+
+        assertThat(write(cached, null).getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(write(cached, "*/*").getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(write(cached, "application/json, application/cbor;q=0.5").getContentType())
+                .isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(write(cached, "application/cbor;q=0").getContentType())
+                .isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(write(cached, "not a media type").getContentType())
+                .isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    void eachEncodingHasItsOwnTagAndIfNoneMatchTakesLists() throws Exception {
+        DoctorDirectoryCache.CachedResponse cached = cache.get("all", this::doctors);
+        String identity = cached.json().etag();
+        String gzip = cached.json().gzipEtag();
+        assertThat(gzip).isNotEqualTo(identity);
+
+        assertThat(send(cached, Map.of(HttpHeaders.ACCEPT_ENCODING, "gzip")).getHeader(HttpHeaders.ETAG))
+                .isEqualTo(gzip);
+        assertThat(send(cached, Map.of(HttpHeaders.ACCEPT_ENCODING, "gzip", HttpHeaders.IF_NONE_MATCH, identity))
+                .getStatus()).isEqualTo(200);
+        assertThat(send(cached, Map.of(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + identity)).getStatus())
+                .isEqualTo(304);
+        assertThat(send(cached, Map.of(HttpHeaders.IF_NONE_MATCH, "*")).getStatus()).isEqualTo(304);
+    }
+
+    private MockHttpServletResponse write(DoctorDirectoryCache.CachedResponse cached, String accept)
+            throws Exception {
+        return send(cached, accept == null ? Map.of() : Map.of(HttpHeaders.ACCEPT, accept));
+    }
+
+    private MockHttpServletResponse send(DoctorDirectoryCache.CachedResponse cached, Map<String, String> headers)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/doctor");
+        headers.forEach(request::addHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.write(cached, request, response);
+        return response;
+    }
+
+    private List<Doctor> doctors() {
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            doctors.add(new Doctor("Dr. " + i, "Cardiology", i + "@clinic.com", "secret1",
+                    "555000" + (1000 + i), new ArrayList<>(List.of("09:00", "10:00-10:30"))));
+        }
+        return doctors;
+    }
+}
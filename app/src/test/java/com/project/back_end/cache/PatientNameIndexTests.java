@@ -0,0 +1,129 @@
+package com.project.back_end.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.back_end.events.AppointmentChangedEvent;
+
+class PatientNameIndexTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+    private final PatientNameIndex index = new PatientNameIndex(Duration.ofMinutes(5), 16);
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void keystrokesAfterTheFirstAreAnsweredFromMemory() {
+        assertThat(search(index, 1L, MONDAY, "jane")).containsExactly(10L);
+        assertThat(search(index, 1L, MONDAY, "jane d")).containsExactly(10L);
+        assertThat(search(index, 1L, MONDAY, "roe")).containsExactly(11L);
+        assertThat(loads).hasValue(1);
+
+        // A status change names no doctor and keeps the day
+        index.onAppointmentChanged(new AppointmentChangedEvent(AppointmentChangedEvent.Type.STATUS_CHANGED,
+                10L, null, null, null, 1, null));
+        search(index, 1L, MONDAY, "jane");
+        assertThat(loads).hasValue(1);
+
+        index.onAppointmentChanged(new AppointmentChangedEvent(AppointmentChangedEvent.Type.BOOKED,
+                12L, 1L, MONDAY, null, 0, 20L));
+        search(index, 1L, MONDAY, "jane");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictingAnotherDayKeepsABuildInFlight() throws Exception {
+        buildWhile(1L, MONDAY, () -> index.evict(1L, MONDAY.plusDays(1)));
+        buildWhile(1L, MONDAY, () -> index.evict(2L, MONDAY));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictingTheSameDayDiscardsTheBuildInFlight() throws Exception {
+        buildWhile(1L, MONDAY, () -> index.evict(1L, MONDAY));
+        buildWhile(1L, MONDAY, index::clear);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws Exception {
+        PatientNameIndex shortLived = new PatientNameIndex(Duration.ofMillis(50), 16);
+        search(shortLived, 1L, MONDAY, "jane");
+        search(shortLived, 1L, MONDAY, "jane");
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(100);
+        search(shortLived, 1L, MONDAY, "jane");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void pastMaxEntriesNewDaysAreSearchedButNotKept() {
+        PatientNameIndex small = new PatientNameIndex(Duration.ofMinutes(5), 2);
+        search(small, 1L, MONDAY, "jane");
+        search(small, 1L, MONDAY.plusDays(1), "jane");
+        search(small, 1L, MONDAY.plusDays(2), "jane");
+        assertThat(search(small, 1L, MONDAY.plusDays(2), "jane")).containsExactly(10L);
+        assertThat(loads).hasValue(4);
+
+        search(small, 1L, MONDAY, "jane");
+        assertThat(loads).hasValue(4);
+    }
+
+    private List<Long> search(PatientNameIndex target, Long doctorId, LocalDate date, String name) {
+        return target.search(doctorId, date, name, () -> {
+            loads.incrementAndGet();
+            return day();
+        });
+    }
+
+    // Searches the day, running `meanwhile` while its build (if it misses) is in flight
+    private void buildWhile(Long doctorId, LocalDate date, Runnable meanwhile) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<Long>> read = pool.submit(() -> index.search(doctorId, date, "jane", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return day();
+        }));
+
+        if (started.await(1, TimeUnit.SECONDS)) {
+            meanwhile.run();
+            release.countDown();
+        }
+        assertThat(read.get(5, TimeUnit.SECONDS)).containsExactly(10L);
+    }
+
+    private static List<Object[]> day() {
+        return List.of(new Object[] { 10L, "Jane Doe" }, new Object[] { 11L, "John Roe" });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
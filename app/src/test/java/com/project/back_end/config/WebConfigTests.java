@@ -0,0 +1,19 @@
+package com.project.back_end.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class WebConfigTests {
+
+    @Test
+    void fingerprintSkipsLocationsThatDoNotExist() {
+        // Boot's default static locations; only classpath:/static/ exists here
+        String[] defaults = { "classpath:/META-INF/resources/", "classpath:/resources/", "classpath:/static/",
+                "classpath:/public/" };
+
+        assertThat(WebConfig.fingerprint(defaults))
+                .startsWith("v-")
+                .isEqualTo(WebConfig.fingerprint(new String[] { "classpath:/static/" }));
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.back_end.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.DashboardAppointment;
+import com.project.back_end.cache.AvailabilityCache;
+import com.project.back_end.cache.DoctorDirectoryCache;
+import com.project.back_end.config.CborConfig;
+import com.project.back_end.push.AppointmentStreamHub;
+import com.project.back_end.services.DoctorDashboardService;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.Service;
+
+/**
+ * Content negotiation of a controller that writes its own bodies (no
+ * pre-serialized cache), with the converters in the application's order.
+ */
+class CborNegotiationTests {
+
+    private static final String PREFERS_CBOR = "application/cbor, application/json;q=0.9";
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    // A plain ObjectMapper, as Boot builds it: JsonMapper cannot be copied onto the CBOR factory
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final DoctorService doctorService = mock(DoctorService.class);
+    private final DoctorDashboardService dashboardService = mock(DoctorDashboardService.class);
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new DoctorController(doctorService, dashboardService, mock(Service.class),
+                    mock(DoctorDirectoryCache.class), mock(AppointmentStreamHub.class), mock(AvailabilityCache.class)))
+            .addPlaceholderValue("api.path", "/")
+            .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper),
+                    new CborConfig().cborHttpMessageConverter(objectMapper))
+            .setControllerAdvice(new PlainTextStrings())
+            .build();
+
+    @Test
+    void objectsAreWrittenAsCborWhenPreferred() throws Exception {
+        when(doctorService.resolveDoctorId("t1")).thenReturn(1L);
+        when(dashboardService.getDay(eq(1L), eq(DAY), any())).thenReturn(List.of(
+                new DashboardAppointment(10L, DAY.atTime(9, 0), 0, 20L, "Jane Doe", "5550000003", "jane@mail.com",
+                        null)));
+
+        MockHttpServletResponse cbor = dashboard("t1", PREFERS_CBOR);
+        assertThat(cbor.getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+        JsonNode decoded = CborConfig.cborMapper(objectMapper).readTree(cbor.getContentAsByteArray());
+        assertThat(decoded.at("/appointments/0/patientName").asText()).isEqualTo("Jane Doe");
+
+        MockHttpServletResponse json = dashboard("t1", MediaType.APPLICATION_JSON_VALUE);
+        assertThat(json.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(objectMapper.readTree(json.getContentAsByteArray())).isEqualTo(decoded);
+    }
+
+    @Test
+    void errorMessagesStayPlainTextWhenCborIsPreferred() throws Exception {
+        when(doctorService.resolveDoctorId("expired")).thenReturn(null);
+
+        MockHttpServletResponse response = dashboard("expired", PREFERS_CBOR);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(MediaType.parseMediaType(response.getContentType()).isCompatibleWith(MediaType.TEXT_PLAIN)).isTrue();
+        assertThat(response.getContentAsString()).isEqualTo("Invalid or expired token.");
+    }
+
+    private MockHttpServletResponse dashboard(String token, String accept) throws Exception {
+        return mvc.perform(get("/doctor/dashboard/{date}/null/{token}", DAY, token).header(HttpHeaders.ACCEPT, accept))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.back_end.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotencyStoreTests {
+
+    private final IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), new SimpleMeterRegistry(),
+            Duration.ofMinutes(5), Duration.ofSeconds(5), 100);
+    private static final Map<String, Object> BODY = Map.of("appointmentId", 1, "medication", "Aspirin");
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void retryGetsTheFirstResponseWithoutRunningAgain() {
+        ResponseEntity<?> first = store.execute("prescription/t1", "key-1", BODY, this::created);
+        ResponseEntity<?> retry = store.execute("prescription/t1", "key-1", BODY, this::created);
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+
+        // Another caller, another key, or no key at all: runs
+        store.execute("prescription/t2", "key-1", BODY, this::created);
+        store.execute("prescription/t1", "key-2", BODY, this::created);
+        store.execute("prescription/t1", null, BODY, this::created);
+        assertThat(runs).hasValue(4);
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstAttempt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<?>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("booking/t1", "key-1", BODY, () -> {
+                    started.countDown();
+                    await(release);
+                    return created();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<ResponseEntity<?>> retry = CompletableFuture.supplyAsync(() ->
+                store.execute("booking/t1", "key-1", BODY, this::created));
+        Thread.sleep(100);
+        assertThat(retry).isNotDone();
+
+        release.countDown();
+        assertThat(retry.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(first.get(5, TimeUnit.SECONDS).getBody());
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failuresAreNotKept() {
+        assertThatThrownBy(() -> store.execute("prescription/t1", "key-1", BODY, () -> {
+            throw new IllegalStateException("MongoDB down");
+        })).isInstanceOf(IllegalStateException.class);
+        store.execute("prescription/t1", "key-2", BODY, () -> ResponseEntity.internalServerError().body("Error"));
+
+        store.execute("prescription/t1", "key-1", BODY, this::created);
+        store.execute("prescription/t1", "key-2", BODY, this::created);
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void theSameKeyWithAnotherBodyIsRejected() {
+        store.execute("prescription/t1", "key-1", BODY, this::created);
+
+        ResponseEntity<?> other = store.execute("prescription/t1", "key-1",
+                Map.of("appointmentId", 2, "medication", "Aspirin"), this::created);
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void pastTheBoundTheLeastRecentlyUsedKeyIsEvicted() {
+        IdempotencyStore small = new IdempotencyStore(new ObjectMapper(), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5), Duration.ofSeconds(5), 2);
+        small.execute("prescription/t1", "key-1", BODY, this::created);
+        small.execute("prescription/t1", "key-2", BODY, this::created);
+        small.execute("prescription/t1", "key-1", BODY, this::created);
+        small.execute("prescription/t1", "key-3", BODY, this::created);
+        assertThat(runs).hasValue(3);
+
+        // key-2 was the least recently used; key-1 and key-3 are still kept
+        small.execute("prescription/t1", "key-1", BODY, this::created);
+        small.execute("prescription/t1", "key-3", BODY, this::created);
+        assertThat(runs).hasValue(3);
+        small.execute("prescription/t1", "key-2", BODY, this::created);
+        assertThat(runs).hasValue(4);
+    }
+
+    @Test
+    void aKeyInFlightIsNotEvicted() throws Exception {
+        IdempotencyStore small = new IdempotencyStore(new ObjectMapper(), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5), Duration.ofSeconds(5), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<?>> first = CompletableFuture.supplyAsync(() ->
+                small.execute("prescription/t1", "key-1", BODY, () -> {
+                    started.countDown();
+                    await(release);
+                    return created();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Past the bound while key-1 runs
+        small.execute("prescription/t1", "key-2", BODY, this::created);
+        small.execute("prescription/t1", "key-3", BODY, this::created);
+
+        CompletableFuture<ResponseEntity<?>> retry = CompletableFuture.supplyAsync(() ->
+                small.execute("prescription/t1", "key-1", BODY, this::created));
+        release.countDown();
+        assertThat(retry.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(first.get(5, TimeUnit.SECONDS).getBody());
+        assertThat(runs).hasValue(3);
+    }
+
+    private ResponseEntity<?> created() {
+        return ResponseEntity.status(HttpStatus.CREATED).body("Saved #" + runs.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
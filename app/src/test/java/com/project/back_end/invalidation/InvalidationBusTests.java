@@ -0,0 +1,138 @@
+package com.project.back_end.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.cache.AvailabilityCache;
+import com.project.back_end.cache.DoctorDirectoryCache;
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.events.AppointmentChangedEvent;
+import com.project.back_end.events.DoctorSlotsChangedEvent;
+import com.project.back_end.push.AppointmentStreamHub;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Two nodes sharing one loopback transport, each with its own caches.
+ */
+class InvalidationBusTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private final LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+    private final Node first = new Node("first");
+    private final Node second = new Node("second");
+
+    @Test
+    void bookingOnOneNodeEvictsThatDayOnTheOthers() {
+        second.availability(1L, MONDAY);
+        second.availability(1L, TUESDAY);
+        second.availability(2L, MONDAY);
+
+        first.bus.onAppointmentChanged(booked(1L, MONDAY));
+
+        second.availability(1L, MONDAY);
+        second.availability(1L, TUESDAY);
+        second.availability(2L, MONDAY);
+        assertThat(second.loads).hasValue(4);
+    }
+
+    @Test
+    void bookingOnOneNodeReloadsThatDayOnTheOthersDashboards() {
+        first.bus.onAppointmentChanged(booked(1L, MONDAY));
+
+        verify(second.streamHub).reloadDay(1L, MONDAY);
+        // Its own dashboards got the delta from the local event
+        verify(first.streamHub, never()).reloadDay(1L, MONDAY);
+    }
+
+    @Test
+    void doctorWriteOnOneNodeDropsTheDirectoryAndTheDoctorsDaysOnTheOthers() {
+        second.directory();
+        second.availability(1L, MONDAY);
+        second.availability(2L, MONDAY);
+
+        first.bus.onDoctorChanged(new DoctorSlotsChangedEvent(1L));
+
+        second.directory();
+        second.availability(1L, MONDAY);
+        second.availability(2L, MONDAY);
+        assertThat(second.directoryLoads).hasValue(2);
+        assertThat(second.loads).hasValue(3);
+    }
+
+    @Test
+    void nodeIgnoresItsOwnMessages() {
+        first.availability(1L, MONDAY);
+
+        // The cache's own listener is what drops a local change
+        first.bus.onAppointmentChanged(booked(1L, MONDAY));
+        first.availability(1L, MONDAY);
+        assertThat(first.loads).hasValue(1);
+
+        first.availabilityCache.onAppointmentChanged(booked(1L, MONDAY));
+        first.availability(1L, MONDAY);
+        assertThat(first.loads).hasValue(2);
+    }
+
+    @Test
+    void statusChangesAreNotBroadcast() {
+        second.availability(1L, MONDAY);
+
+        first.bus.onAppointmentChanged(new AppointmentChangedEvent(AppointmentChangedEvent.Type.STATUS_CHANGED,
+                10L, null, null, null, 1, null));
+
+        second.availability(1L, MONDAY);
+        assertThat(second.loads).hasValue(1);
+    }
+
+    private static AppointmentChangedEvent booked(Long doctorId, LocalDate date) {
+        return new AppointmentChangedEvent(AppointmentChangedEvent.Type.BOOKED, 10L, doctorId, date,
+                null, 0, 20L);
+    }
+
+    private class Node {
+
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final DoctorDirectoryCache directoryCache = new DoctorDirectoryCache(new ObjectMapper(), registry, 16);
+        final AvailabilityCache availabilityCache = new AvailabilityCache(registry, Duration.ofMinutes(5), 16);
+        final PatientNameIndex patientNameIndex = new PatientNameIndex(Duration.ofMinutes(5), 16);
+        final AppointmentStreamHub streamHub = mock(AppointmentStreamHub.class);
+        final InvalidationBus bus;
+        final AtomicInteger loads = new AtomicInteger();
+        final AtomicInteger directoryLoads = new AtomicInteger();
+
+        Node(String nodeId) {
+            // No JPA here: the second-level cache step is skipped
+            bus = new InvalidationBus(transport, directoryCache, availabilityCache, patientNameIndex, streamHub,
+                    new StaticListableBeanFactory().getBeanProvider(EntityManagerFactory.class), registry, nodeId);
+        }
+
+        List<String> availability(Long doctorId, LocalDate date) {
+            return availabilityCache.get(doctorId, date, () -> {
+                loads.incrementAndGet();
+                return List.of("09:00");
+            });
+        }
+
+        void directory() {
+            directoryCache.get("all", () -> {
+                directoryLoads.incrementAndGet();
+                return List.of();
+            });
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.project.back_end.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+
+/**
+ * The tailing loop against an in-memory stand-in for a capped collection:
+ * mongo-java-server implements neither capped collections nor tailable
+ * cursors. The stand-in keeps the last few documents in insertion order and,
+ * like the server, kills a cursor whose position was overwritten.
+ */
+class MongoInvalidationTransportTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+    private final CappedCollection capped = new CappedCollection(3);
+    private final BlockingQueue<InvalidationMessage> received = new LinkedBlockingQueue<>();
+    private MongoInvalidationTransport transport;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        if (transport != null) transport.close();
+    }
+
+    @Test
+    void tailsMessagesInOrderFromWhereItStarted() throws InterruptedException {
+        capped.insert(message("old", 1L));
+        transport = new MongoInvalidationTransport(capped.collection);
+        transport.subscribe(received::add);
+
+        transport.send(message("first", 2L));
+        assertThat(next()).isEqualTo(message("first", 2L));
+        capped.insert(message("other", 3L));
+        assertThat(next()).isEqualTo(message("other", 3L));
+        assertThat(received.poll(200, TimeUnit.MILLISECONDS)).as("nothing from before the start").isNull();
+    }
+
+    @Test
+    void fallingBehindTheCappedCollectionInvalidatesEverything() throws InterruptedException {
+        transport = new MongoInvalidationTransport(capped.collection);
+        transport.subscribe(received::add);
+        transport.send(message("first", 1L));
+        assertThat(next()).isEqualTo(message("first", 1L));
+
+        // Disconnected while other nodes write past the collection's size
+        capped.down = true;
+        for (long doctorId = 2; doctorId <= 6; doctorId++) {
+            capped.insert(message("other", doctorId));
+        }
+        capped.down = false;
+
+        assertThat(next()).isEqualTo(new InvalidationMessage(null, InvalidationMessage.Region.ALL, null, null));
+        // Then whatever the collection still holds, and new messages as usual
+        assertThat(next()).isEqualTo(message("other", 4L));
+        assertThat(next()).isEqualTo(message("other", 5L));
+        assertThat(next()).isEqualTo(message("other", 6L));
+        transport.send(message("first", 7L));
+        assertThat(next()).isEqualTo(message("first", 7L));
+    }
+
+    // Long enough for a reconnect: the tailer retries once a second
+    private InvalidationMessage next() throws InterruptedException {
+        InvalidationMessage message = received.poll(5, TimeUnit.SECONDS);
+        assertThat(message).as("next message").isNotNull();
+        return message;
+    }
+
+    private static InvalidationMessage message(String origin, Long doctorId) {
+        return new InvalidationMessage(origin, InvalidationMessage.Region.AVAILABILITY, doctorId, MONDAY);
+    }
+
+    // The MongoCollection calls the transport makes, over the last `capacity` documents
+    private static class CappedCollection {
+
+        @SuppressWarnings("unchecked")
+        final MongoCollection<Document> collection = mock(MongoCollection.class);
+        private final Map<Long, Document> documents = new ConcurrentSkipListMap<>();
+        private final AtomicLong sequence = new AtomicLong();
+        private final int capacity;
+        // Every read fails while the "connection" is down; writes from other nodes still land
+        volatile boolean down;
+
+        @SuppressWarnings("unchecked")
+        CappedCollection(int capacity) {
+            this.capacity = capacity;
+            FindIterable<Document> find = mock(FindIterable.class, RETURNS_SELF);
+            when(collection.find()).thenAnswer(call -> {
+                checkUp();
+                return find;
+            });
+            when(find.first()).thenAnswer(call -> documents.isEmpty() ? null
+                    : ((ConcurrentSkipListMap<Long, Document>) documents).lastEntry().getValue());
+            when(find.iterator()).thenAnswer(call -> cursor());
+            when(collection.countDocuments(any(Bson.class))).thenAnswer(call -> {
+                checkUp();
+                BsonValue id = call.<Bson>getArgument(0).toBsonDocument().get("_id");
+                return documents.values().stream()
+                        .filter(document -> document.getObjectId("_id").equals(id.asObjectId().getValue()))
+                        .count();
+            });
+            when(collection.insertOne(any(Document.class))).thenAnswer(call -> {
+                append(call.getArgument(0));
+                return null;
+            });
+        }
+
+        synchronized void insert(InvalidationMessage message) {
+            append(new Document("o", message.origin()).append("r", message.region().name())
+                    .append("d", message.doctorId()).append("t", message.date().toString()));
+        }
+
+        private synchronized void append(Document document) {
+            document.putIfAbsent("_id", new ObjectId());
+            documents.put(sequence.incrementAndGet(), document);
+            while (documents.size() > capacity) {
+                ((ConcurrentSkipListMap<Long, Document>) documents).pollFirstEntry();
+            }
+        }
+
+        private void checkUp() {
+            if (down) throw new MongoException("connection refused");
+        }
+
+        @SuppressWarnings("unchecked")
+        private MongoCursor<Document> cursor() {
+            checkUp();
+            ConcurrentSkipListMap<Long, Document> log = (ConcurrentSkipListMap<Long, Document>) documents;
+            if (log.isEmpty()) return deadCursor();
+
+            AtomicLong next = new AtomicLong(log.firstKey());
+            MongoCursor<Document> cursor = mock(MongoCursor.class);
+            when(cursor.getServerCursor()).thenReturn(mock(ServerCursor.class));
+            when(cursor.tryNext()).thenAnswer(call -> {
+                checkUp();
+                Map.Entry<Long, Document> entry = log.ceilingEntry(next.get());
+                if (entry != null && entry.getKey() != next.get()) {
+                    throw new MongoException(136, "CappedPositionLost");
+                }
+                if (entry == null) {
+                    Thread.sleep(10);
+                    return null;
+                }
+                next.incrementAndGet();
+                return entry.getValue();
+            });
+            return cursor;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static MongoCursor<Document> deadCursor() {
+            MongoCursor<Document> cursor = mock(MongoCursor.class);
+            when(cursor.tryNext()).thenReturn(null);
+            when(cursor.getServerCursor()).thenReturn(null);
+            return cursor;
+        }
+    }
+}
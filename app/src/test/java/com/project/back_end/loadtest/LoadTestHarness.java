@@ -0,0 +1,114 @@
+package com.project.back_end.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.services.TokenService;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Offline load test of the REST surface.
+ *
+ * Boots the application with the "loadtest" profile against H2 (MySQL mode)
+ * and an in-process MongoDB wire-protocol server, seeds synthetic data,
+ * drives a weighted mix of requests and prints throughput and p50/p95/p99
+ * per endpoint (also written to target/loadtest-report.json).
+ *
+ * Run: ./mvnw -Ploadtest verify -DskipTests -Dloadtest.args="doctors=500 concurrency=200"
+ *
+ * Options as name=value (defaults in brackets): doctors [200] patients [5000]
+ * appointmentsPerDoctor [40] days [7] prescriptionRatio [0.3]
+ * concurrency [100] warmup [10] duration [60]
+ * mix [login:5,directory:30,filter:25,availability:25,prescription:10,dashboard:5]
+ */
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        String mongoAddress = mongo.bindAndGetConnectionString();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackEndApplication.class)
+                .profiles("loadtest")
+                .run("--spring.data.mongodb.uri=" + mongoAddress + "/prescriptions");
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            long seedStart = System.nanoTime();
+            LoadTestSeeder.Dataset dataset = new LoadTestSeeder(context).seed(
+                    intOption(options, "doctors", 200),
+                    intOption(options, "patients", 5000),
+                    intOption(options, "appointmentsPerDoctor", 40),
+                    intOption(options, "days", 7),
+                    Double.parseDouble(options.getOrDefault("prescriptionRatio", "0.3")));
+            System.out.printf("Seeded %d doctors, %d patients, %d appointments in %d ms%n",
+                    dataset.doctors().size(), dataset.patients().size(), dataset.appointmentIds().size(),
+                    Duration.ofNanos(System.nanoTime() - seedStart).toMillis());
+
+            // Tokens carry the e-mail as subject, which is what validateToken looks up
+            TokenService tokenService = context.getBean(TokenService.class);
+            Map<String, String> doctorTokens = new HashMap<>();
+            for (Doctor doctor : dataset.doctors()) {
+                doctorTokens.put(doctor.getEmail(), tokenService.generateToken(doctor.getEmail()));
+            }
+            Map<String, String> patientTokens = new HashMap<>();
+            for (Patient patient : dataset.patients()) {
+                patientTokens.put(patient.getEmail(), tokenService.generateToken(patient.getEmail()));
+            }
+
+            MixedWorkload workload = new MixedWorkload(baseUrl, dataset, doctorTokens, patientTokens,
+                    mix(options.getOrDefault("mix",
+                            "login:5,directory:30,filter:25,availability:25,prescription:10,dashboard:5")));
+            MixedWorkload.Report report = workload.run(
+                    intOption(options, "concurrency", 100),
+                    Duration.ofSeconds(intOption(options, "warmup", 10)),
+                    Duration.ofSeconds(intOption(options, "duration", 60)));
+
+            System.out.print(report.toTable());
+            Path json = Path.of("target", "loadtest-report.json");
+            Files.createDirectories(json.getParent());
+            Files.writeString(json, report.toJson());
+        } finally {
+            context.close();
+            mongo.shutdownNow();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            if (!option.contains("=")) {
+                throw new IllegalArgumentException("Expected name=value but got: " + arg);
+            }
+            options.put(option.substring(0, option.indexOf('=')), option.substring(option.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
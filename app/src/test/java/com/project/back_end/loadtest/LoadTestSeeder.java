@@ -0,0 +1,99 @@
+package com.project.back_end.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.context.ApplicationContext;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+/**
+ * Fills the embedded datastores with synthetic clinics: doctors with hourly
+ * templates, patients, appointments spread over the next days and a
+ * prescription for part of those appointments.
+ */
+class LoadTestSeeder {
+
+    static final String PASSWORD = "password";
+    static final String[] SPECIALTIES = {
+            "Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics", "Oncology", "Psychiatry"
+    };
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final Random random = new Random(42);
+
+    LoadTestSeeder(ApplicationContext context) {
+        this.doctorRepository = context.getBean(DoctorRepository.class);
+        this.patientRepository = context.getBean(PatientRepository.class);
+        this.appointmentRepository = context.getBean(AppointmentRepository.class);
+        this.prescriptionRepository = context.getBean(PrescriptionRepository.class);
+    }
+
+    Dataset seed(int doctorCount, int patientCount, int appointmentsPerDoctor, int days, double prescriptionRatio) {
+        List<Doctor> doctors = new ArrayList<>(doctorCount);
+        for (int i = 0; i < doctorCount; i++) {
+            doctors.add(new Doctor("Doctor " + i, SPECIALTIES[i % SPECIALTIES.length], "doctor" + i + "@clinic.com",
+                    PASSWORD, String.format("%010d", i), template()));
+        }
+        doctors = doctorRepository.saveAll(doctors);
+
+        List<Patient> patients = new ArrayList<>(patientCount);
+        for (int i = 0; i < patientCount; i++) {
+            patients.add(new Patient("Patient " + i, "patient" + i + "@mail.com", PASSWORD,
+                    String.format("%010d", 5_000_000_000L + i), i + " Main Street"));
+        }
+        patients = patientRepository.saveAll(patients);
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        List<Appointment> appointments = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            List<String> times = doctor.getAvailableTimes();
+            for (int i = 0; i < appointmentsPerDoctor; i++) {
+                LocalDate day = firstDay.plusDays(i / times.size() % days);
+                LocalTime time = LocalTime.parse(times.get(i % times.size()));
+                Patient patient = patients.get(random.nextInt(patients.size()));
+                appointments.add(new Appointment(null, doctor, patient, day.atTime(time), 0));
+            }
+        }
+        appointments = appointmentRepository.saveAll(appointments);
+
+        List<Prescription> prescriptions = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            if (random.nextDouble() < prescriptionRatio) {
+                prescriptions.add(new Prescription(appointment.getPatient().getName(), appointment.getId(),
+                        "Amoxicillin", "500mg", "Twice a day after meals"));
+            }
+        }
+        prescriptionRepository.saveAll(prescriptions);
+
+        List<Long> appointmentIds = appointments.stream().map(Appointment::getId).toList();
+        return new Dataset(doctors, patients, appointmentIds, firstDay, days);
+    }
+
+    private List<String> template() {
+        int firstHour = random.nextBoolean() ? 8 : 13;
+        int slots = 3 + random.nextInt(5);
+        List<String> times = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            times.add(LocalTime.of(firstHour + i, 0).toString());
+        }
+        return times;
+    }
+
+    record Dataset(List<Doctor> doctors, List<Patient> patients, List<Long> appointmentIds,
+                   LocalDate firstDay, int days) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.project.back_end.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+/**
+ * Closed-loop mixed workload: every client thread picks an operation by
+ * weight, sends it and records the latency under the operation's name.
+ */
+class MixedWorkload {
+
+    interface Operation {
+        HttpRequest.Builder request(Random random);
+    }
+
+    private final String baseUrl;
+    private final LoadTestSeeder.Dataset dataset;
+    private final Map<String, String> doctorTokens;
+    private final Map<String, String> patientTokens;
+    private final Map<String, Integer> mix;
+
+    MixedWorkload(String baseUrl, LoadTestSeeder.Dataset dataset, Map<String, String> doctorTokens,
+                  Map<String, String> patientTokens, Map<String, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.doctorTokens = doctorTokens;
+        this.patientTokens = patientTokens;
+        this.mix = mix;
+    }
+
+    // Operation name -> request factory; names are the keys of the --mix option
+    private Map<String, Operation> operations() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("login", random -> {
+            Doctor doctor = randomDoctor(random);
+            String body = "{\"email\":\"" + doctor.getEmail() + "\",\"password\":\"" + LoadTestSeeder.PASSWORD + "\"}";
+            return post("/doctor/login", body);
+        });
+        operations.put("directory", random -> get("/doctor/all"));
+        operations.put("filter", random -> get("/doctor/filter?speciality="
+                + LoadTestSeeder.SPECIALTIES[random.nextInt(LoadTestSeeder.SPECIALTIES.length)]
+                + "&time=" + (random.nextBoolean() ? "AM" : "PM")));
+        operations.put("availability", random -> {
+            Patient patient = dataset.patients().get(random.nextInt(dataset.patients().size()));
+            LocalDate date = dataset.firstDay().plusDays(random.nextInt(dataset.days()));
+            return get("/doctor/availability/patient/" + randomDoctor(random).getId() + "/" + date + "/"
+                    + patientTokens.get(patient.getEmail()));
+        });
+        operations.put("prescription", random -> {
+            Long appointmentId = dataset.appointmentIds().get(random.nextInt(dataset.appointmentIds().size()));
+            String body = "{\"patientName\":\"Patient Load\",\"appointmentId\":" + appointmentId
+                    + ",\"medication\":\"Ibuprofen\",\"dosage\":\"200mg\",\"doctorNotes\":\"Load test\"}";
+            return post("/prescription/save/" + doctorTokens.get(randomDoctor(random).getEmail()), body);
+        });
+        operations.put("dashboard", random -> get("/doctorDashboard/"
+                + doctorTokens.get(randomDoctor(random).getEmail())));
+        return operations;
+    }
+
+    Report run(int concurrency, Duration warmup, Duration measure) throws InterruptedException {
+        Map<String, Operation> operations = operations();
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            if (!operations.containsKey(name)) throw new IllegalArgumentException("Unknown operation: " + name);
+            for (int i = 0; i < weight; i++) weighted.add(name);
+        });
+
+        ExecutorService io = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).executor(io).build();
+        long startMeasure = System.nanoTime() + warmup.toNanos();
+        long endMeasure = startMeasure + measure.toNanos();
+
+        List<Map<String, Samples>> perClient = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            Map<String, Samples> samples = new TreeMap<>();
+            perClient.add(samples);
+            Random random = new Random(c);
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < endMeasure) {
+                        String name = weighted.get(random.nextInt(weighted.size()));
+                        HttpRequest request = operations.get(name).request(random)
+                                .timeout(Duration.ofSeconds(30)).build();
+                        long t0 = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long t1 = System.nanoTime();
+                        if (t0 >= startMeasure && t1 <= endMeasure) {
+                            samples.computeIfAbsent(name, n -> new Samples()).record(t1 - t0, status);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+        io.shutdown();
+
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Map<String, Samples> samples : perClient) {
+            samples.forEach((name, s) -> merged.computeIfAbsent(name, n -> new Samples()).addAll(s));
+        }
+        return new Report(merged, measure);
+    }
+
+    private Doctor randomDoctor(Random random) {
+        return dataset.doctors().get(random.nextInt(dataset.doctors().size()));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    static final class Samples {
+        long[] nanos = new long[256];
+        int size;
+        long errors;
+
+        // Only 2xx/3xx count as served: a 401, 404 or 429 returns early and would flatter the latencies
+        void record(long value, int status) {
+            if (status < 200 || status >= 400) {
+                errors++;
+                return;
+            }
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) record(other.nanos[i], 200);
+            errors += other.errors;
+        }
+    }
+
+    static final class Report {
+        private final Map<String, Samples> samples;
+        private final Duration measure;
+
+        Report(Map<String, Samples> samples, Duration measure) {
+            this.samples = samples;
+            this.measure = measure;
+        }
+
+        String toTable() {
+            StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-14s %9s %8s %10s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+            samples.forEach((name, s) -> {
+                long[] sorted = Arrays.copyOf(s.nanos, s.size);
+                Arrays.sort(sorted);
+                out.append(String.format(Locale.ROOT, "%-14s %9d %8d %10.1f %9.2f %9.2f %9.2f%n",
+                        name, s.size, s.errors, s.size / seconds(),
+                        percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99)));
+            });
+            return out.toString();
+        }
+
+        String toJson() {
+            StringBuilder out = new StringBuilder("{");
+            samples.forEach((name, s) -> {
+                long[] sorted = Arrays.copyOf(s.nanos, s.size);
+                Arrays.sort(sorted);
+                if (out.length() > 1) out.append(',');
+                out.append(String.format(Locale.ROOT,
+                        "\"%s\":{\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                                + "\"p50Ms\":%.2f,\"p95Ms\":%.2f,\"p99Ms\":%.2f}",
+                        name, s.size, s.errors, s.size / seconds(),
+                        percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99)));
+            });
+            return out.append('}').toString();
+        }
+
+        private double seconds() {
+            return measure.toMillis() / 1000.0;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.project.back_end.push;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.project.back_end.events.AppointmentChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AppointmentStreamHubTests {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AppointmentStreamHub hub;
+
+    @AfterEach
+    void shutdown() {
+        if (hub != null) hub.shutdown();
+    }
+
+    @Test
+    void eventsReachAStreamInOrder() throws Exception {
+        hub = hub(32, Duration.ofSeconds(10));
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.subscribe(1L, DAY, emitter);
+
+        for (long id = 1; id <= 20; id++) {
+            hub.publish(booked(id));
+        }
+
+        assertThat(emitter.next()).contains("subscribed");
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < 20; i++) received.add(emitter.next());
+        for (int i = 0; i < 20; i++) {
+            assertThat(received.get(i)).contains("\"appointmentId\":" + (i + 1) + ",");
+        }
+        assertThat(registry.counter("clinic.push.delivered").count()).isEqualTo(20);
+    }
+
+    @Test
+    void aStreamPastMaxPendingIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        hub = hub(3, Duration.ofSeconds(10));
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.gate = new CountDownLatch(1);
+        RecordingEmitter fast = new RecordingEmitter();
+        hub.subscribe(1L, DAY, slow);
+        hub.subscribe(1L, DAY, fast);
+        assertThat(slow.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.next()).contains("subscribed");
+
+        // The fast stream keeps up with each event; the slow one's queue only grows
+        for (long id = 1; id <= 5; id++) {
+            hub.publish(booked(id));
+            assertThat(fast.next()).contains("\"appointmentId\":" + id + ",");
+        }
+
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.counter("clinic.push.dropped").count()).isEqualTo(1);
+        assertThat(subscribers()).isEqualTo(1);
+        slow.gate.countDown();
+    }
+
+    @Test
+    void aWriterBlockedPastTheWriteTimeoutIsDropped() throws Exception {
+        hub = hub(32, Duration.ofMillis(100));
+        RecordingEmitter stuck = new RecordingEmitter();
+        stuck.gate = new CountDownLatch(1);
+        hub.subscribe(1L, DAY, stuck);
+        assertThat(stuck.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        hub.publish(booked(1));
+        assertThat(stuck.completed.getCount()).as("still within the write timeout").isEqualTo(1);
+
+        Thread.sleep(200);
+        hub.publish(booked(2));
+        assertThat(stuck.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.counter("clinic.push.dropped").count()).isEqualTo(1);
+        assertThat(subscribers()).isZero();
+        stuck.gate.countDown();
+    }
+
+    @Test
+    void aRemoteChangeAsksTheChannelToReload() throws Exception {
+        hub = hub(32, Duration.ofSeconds(10));
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.subscribe(1L, DAY, emitter);
+
+        hub.reloadDay(1L, DAY);
+        hub.reloadDay(2L, DAY);
+
+        assertThat(emitter.next()).contains("subscribed");
+        assertThat(emitter.next()).contains("event:reload").contains("\"date\":\"2026-10-19\"");
+        assertThat(emitter.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private AppointmentStreamHub hub(int maxPending, Duration writeTimeout) {
+        return new AppointmentStreamHub(JsonMapper.builder().findAndAddModules().build(), null, null, registry,
+                Duration.ofMinutes(30), Duration.ofHours(1), 2, 10, maxPending, writeTimeout);
+    }
+
+    private double subscribers() {
+        return registry.get("clinic.push.subscribers").gauge().value();
+    }
+
+    private static AppointmentChangedEvent booked(long appointmentId) {
+        return new AppointmentChangedEvent(AppointmentChangedEvent.Type.BOOKED, appointmentId, 1L, DAY,
+                LocalTime.of(9, 0), 0, 20L);
+    }
+
+    // Records what is written; with a gate, each write blocks until it opens
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile CountDownLatch gate;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            CountDownLatch closed = gate;
+            if (closed != null) {
+                try {
+                    closed.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("an event within 5 s").isNotNull();
+            return event;
+        }
+    }
+}
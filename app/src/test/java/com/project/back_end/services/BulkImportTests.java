@@ -0,0 +1,118 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import com.project.back_end.DTO.ImportReport;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.DoctorTimeSlotRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+@JpaSliceTest(properties = {
+        "app.import.chunk-size=2",
+        "app.slots.horizon-days=2",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Import({ BulkImportService.class, UniquenessService.class, TimeSlotService.class, AppointmentShards.class,
+        ValidationAutoConfiguration.class, JacksonAutoConfiguration.class })
+class BulkImportTests {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DoctorTimeSlotRepository slotRepository;
+
+    @AfterEach
+    void cleanUp() {
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void doctorsAreImportedFromCsvWithAReportOfTheRest() throws IOException {
+        doctorRepository.save(new Doctor("Dr. Adams", "Cardiology", "adams@clinic.com", "secret1",
+                "5550000001", new ArrayList<>(List.of("09:00"))));
+
+        ImportReport report = bulkImportService.importDoctors(body("""
+                name,specialty,email,password,phone,availableTimes
+                Dr. Brown,Cardiology,brown@clinic.com,secret1,5550000002,09:00;10:00-10:30
+                "Carter, Jr.",Dermatology,carter@clinic.com,secret1,5550000003,14:00
+                Dr. Adams,Cardiology,adams@clinic.com,secret1,5550000001,09:00
+                Dr. Davis,Cardiology,not-an-email,secret1,555,09:00
+                Dr. Evans,Cardiology,brown@clinic.com,secret1,5550000005,09:00
+                Dr. Foster,Cardiology,foster@clinic.com,secret1
+                """), BulkImportService.Format.CSV);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(4);
+        assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(4L, 5L, 6L, 7L);
+        assertThat(report.errors().get(0).messages()).containsExactly("email: already registered");
+        assertThat(report.errors().get(1).messages()).hasSize(2);
+        assertThat(report.errors().get(2).messages()).containsExactly("email: already registered");
+
+        assertThat(doctorRepository.findBySpecialtyIgnoreCase("cardiology"))
+                .filteredOn(doctor -> doctor.getEmail().equals("brown@clinic.com"))
+                .singleElement()
+                .satisfies(brown -> assertThat(brown.getAvailableTimes()).containsExactly("09:00", "10:00-10:30"));
+        assertThat(doctorRepository.findByEmail("carter@clinic.com").getName()).isEqualTo("Carter, Jr.");
+        // Both imported doctors are bookable right away
+        assertThat(slotRepository.findLastStartPerDoctor(LocalDate.now().plusDays(2).atStartOfDay())).hasSize(2);
+    }
+
+    @Test
+    void patientsAreImportedFromNdjsonChunkByChunk() throws IOException {
+        patientRepository.save(new Patient("Jane Doe", "jane@mail.com", "secret1", "5550000003", "1 Main St"));
+
+        ImportReport report = bulkImportService.importPatients(body("""
+                {"name":"John Roe","email":"john@mail.com","password":"secret1","phone":"5550000004","address":"2 Main St"}
+                {"name":"Mary Major","email":"mary@mail.com","password":"secret1","phone":"5550000004","address":"3 Main St"}
+                {"name":"Jane Twin","email":"jane.twin@mail.com","password":"secret1","phone":"5550000003","address":"1 Main St"}
+                {"name":"Broken",
+                {"name":"Ann Bell","email":"ann@mail.com","password":"secret1","phone":"5550000006","address":"4 Main St"}
+                """), BulkImportService.Format.NDJSON);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(2L, 3L, 4L);
+        assertThat(report.errors().get(0).messages()).containsExactly("phone: already on line 1");
+        assertThat(report.errors().get(1).messages()).containsExactly("phone: already registered");
+        assertThat(report.errors().get(2).messages().get(0)).startsWith("Unreadable row");
+        assertThat(patientRepository.findByEmail("ann@mail.com")).isNotNull();
+    }
+
+    @Test
+    void aLineLongerThanTheBoundIsReportedAndSkipped() throws IOException {
+        ImportReport report = bulkImportService.importPatients(body(
+                "{\"name\":\"" + "x".repeat(70_000) + "\"}\r\n"
+                + "{\"name\":\"Ann Bell\",\"email\":\"ann@mail.com\",\"password\":\"secret1\","
+                + "\"phone\":\"5550000006\",\"address\":\"4 Main St\"}\r\n"), BulkImportService.Format.NDJSON);
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.errors()).singleElement()
+                .satisfies(error -> assertThat(error.messages().get(0)).startsWith("Row longer than"));
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,125 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.project.back_end.DTO.DashboardAppointment;
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The dashboard merges MySQL rows with the MongoDB prescription lookup; the
+ * prescription store is mocked so it can be taken down.
+ */
+@JpaSliceTest(properties = "app.slow-query.enabled=false")
+@Import({ DoctorDashboardService.class, AppointmentShards.class, PatientNameIndex.class,
+        SimpleMeterRegistry.class })
+class DoctorDashboardTests {
+
+    @Autowired
+    private DoctorDashboardService dashboardService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @MockitoBean
+    private PrescriptionRepository prescriptionRepository;
+
+    private Doctor doctor;
+    private Appointment morning;
+    private Appointment afternoon;
+    private LocalDate day;
+
+    @BeforeEach
+    void seed() {
+        day = LocalDate.now().plusDays(3);
+        doctor = doctorRepository.save(new Doctor("Dr. Adams", "Cardiology", "adams@clinic.com", "secret1",
+                "5550000001", List.of("09:00", "14:00")));
+        Patient patient = patientRepository.save(new Patient("Jane Doe", "jane@mail.com", "secret1",
+                "5550000003", "1 Main St"));
+        morning = appointmentRepository.save(new Appointment(null, doctor, patient, day.atTime(9, 0), 0));
+        afternoon = appointmentRepository.save(new Appointment(null, doctor, patient, day.atTime(14, 0), 0));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void prescriptionStatusIsMergedIntoEachRow() {
+        when(prescriptionRepository.findAppointmentIdsByAppointmentIdIn(anyCollection()))
+                .thenReturn(List.of(new Prescription("Jane Doe", morning.getId(), "Aspirin", "100mg", null)));
+
+        assertThat(dashboardService.getDay(doctor.getId(), day, null))
+                .extracting(DashboardAppointment::id, DashboardAppointment::prescribed)
+                .containsExactly(tuple(morning.getId(), true), tuple(afternoon.getId(), false));
+    }
+
+    @Test
+    void theDayStillLoadsWithAnUnknownStatusWhenMongoIsDown() {
+        when(prescriptionRepository.findAppointmentIdsByAppointmentIdIn(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("MongoDB unreachable"));
+
+        List<DashboardAppointment> rows = dashboardService.getDay(doctor.getId(), day, null);
+        assertThat(rows).extracting(DashboardAppointment::id).containsExactly(morning.getId(), afternoon.getId());
+        assertThat(rows).extracting(DashboardAppointment::prescribed).containsOnlyNulls();
+
+        List<Map<String, Object>> sparse = dashboardService.getDay(doctor.getId(), day, null,
+                new LinkedHashSet<>(List.of("appointmentTime", "prescribed")));
+        assertThat(sparse).hasSize(2).allSatisfy(row -> {
+            assertThat(row).containsEntry("prescribed", null);
+            assertThat(row).doesNotContainKey("id");
+        });
+    }
+
+    @Test
+    void branchesNeverSeeTheCallersRequest() {
+        AtomicReference<Object> seen = new AtomicReference<>("not run");
+        when(prescriptionRepository.findAppointmentIdsByAppointmentIdIn(anyCollection())).thenAnswer(invocation -> {
+            seen.set(RequestContextHolder.getRequestAttributes());
+            return List.of();
+        });
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            dashboardService.getDay(doctor.getId(), day, null);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        assertThat(seen.get()).isNull();
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.back_end.services;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * A {@link DataJpaTest} over the application's entities and repositories,
+ * with the beans under test added by {@code @Import}.
+ *
+ * Tests are not wrapped in a transaction: services commit their own, so
+ * flush-time statements and after-commit listeners run as in production.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest
+@ContextConfiguration(classes = JpaSliceTest.Slice.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface JpaSliceTest {
+
+    @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+    String[] properties() default {};
+
+    // BackEndApplication's explicit @ComponentScan would pull every bean into the slice
+    @SpringBootConfiguration
+    @AutoConfigurationPackage(basePackages = "com.project.back_end")
+    class Slice {
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Supplier;
+
+import com.project.back_end.monitoring.QueryCounter;
+
+// Counts the SQL statements of a call; the test must import MonitoringConfig
+final class QueryAssertions {
+
+    private QueryAssertions() {
+    }
+
+    static void assertQueries(int expected, Supplier<?> call) {
+        QueryCounter.start();
+        try {
+            call.get();
+        } finally {
+            assertThat(QueryCounter.stop()).as("SQL statements").isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.project.back_end.services;
+
+import static com.project.back_end.services.QueryAssertions.assertQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.DTO.DashboardAppointment;
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.config.MonitoringConfig;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+/**
+ * Pins the number of SQL statements issued by DoctorService and
+ * AppointmentService methods, so an N+1 regression fails the build.
+ *
+ * Service transactions are committed (not rolled back with the test) so that
+ * flush-time statements are counted too. The second-level cache is off here:
+ * these counts pin the SQL a cold cache issues (see SecondLevelCacheTests).
+ */
+@JpaSliceTest(properties = {
+        "app.slow-query.enabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Import({ MonitoringConfig.class, DoctorService.class, AppointmentService.class, TokenService.class,
+        AppointmentShards.class, TimeSlotService.class, PatientNameIndex.class,
+        UniquenessService.class })
+class QueryCountTests {
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private TimeSlotService timeSlotService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Doctor doctor;
+    private Patient patient;
+    private LocalDate day;
+
+    @BeforeEach
+    void seed() {
+        day = LocalDate.now().plusDays(7);
+        doctor = doctorRepository.save(new Doctor("Dr. Adams", "Cardiology", "adams@clinic.com", "secret1",
+                "5550000001", List.of("09:00", "10:00", "14:00")));
+        doctorRepository.save(new Doctor("Dr. Brown", "Cardiology", "brown@clinic.com", "secret1",
+                "5550000002", List.of("15:00")));
+        patient = patientRepository.save(new Patient("Jane Doe", "jane@mail.com", "secret1",
+                "5550000003", "1 Main St"));
+        appointmentRepository.save(new Appointment(null, doctor, patient, day.atTime(9, 0), 0));
+        appointmentRepository.save(new Appointment(null, doctor, patient, day.atTime(14, 0), 0));
+        new TransactionTemplate(transactionManager).execute(status -> timeSlotService.materialize(doctor, day, day));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void getDoctorAvailabilityIsOneSlotRead() {
+        assertQueries(1, () -> doctorService.getDoctorAvailability(doctor.getId(), Date.valueOf(day)));
+        assertThat(doctorService.getDoctorAvailability(doctor.getId(), Date.valueOf(day))).containsExactly("10:00");
+    }
+
+    @Test
+    void getDoctorAvailabilityFallsBackToTheTemplateOffTheSlots() {
+        // Slot read finds nothing, then the doctor, its times and the appointments
+        assertQueries(4, () -> doctorService.getDoctorAvailability(doctor.getId(), Date.valueOf(day.plusDays(1))));
+    }
+
+    @Test
+    void filterDoctorBySpecialtyIsOneQuery() {
+        assertQueries(1, () -> doctorService.filterDoctorBySpecialty("cardiology"));
+    }
+
+    @Test
+    void filterDoctorsByTimeFetchesTimesWithDoctors() {
+        assertQueries(1, () -> doctorService.filterDoctorsByTime("AM"));
+    }
+
+    @Test
+    void getAppointmentsForDoctorOnDateIsOneQuery() {
+        assertQueries(1, () -> appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, null));
+    }
+
+    @Test
+    void patientSearchReadsTheDayOnceThenOnlyTheMatches() {
+        // Names of the day for the index, then the matches by id
+        assertQueries(2, () -> appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, "jane"));
+        assertQueries(1, () -> appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, "jane d"));
+        assertQueries(0, () -> appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, "smith"));
+        assertThat(appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, "DOE"))
+                .extracting(appointment -> appointment.getAppointmentTime().toLocalTime().toString())
+                .containsExactly("09:00", "14:00");
+    }
+
+    @Test
+    void dashboardRowsJoinPatientsInOneQuery() {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        assertQueries(1, () -> appointmentRepository.findIdsByDoctorIdAndAppointmentTimeRange(doctor.getId(), start, end));
+        assertQueries(1, () -> appointmentRepository.findDashboardRows(doctor.getId(), start, end, null));
+
+        List<DashboardAppointment> rows = appointmentRepository.findDashboardRows(doctor.getId(), start, end, "jane");
+        assertThat(rows).extracting(DashboardAppointment::patientName).containsExactly("Jane Doe", "Jane Doe");
+        assertThat(appointmentRepository.findDashboardRows(doctor.getId(), start, end, "smith")).isEmpty();
+    }
+
+    @Test
+    void sparseDoctorFieldsReadTheTimesOnlyWhenRequested() {
+        assertQueries(1, () -> doctorService.getDoctorFields(Set.of("id", "name"), null, null, null));
+        assertQueries(2, () -> doctorService.getDoctorFields(Set.of("name", "availableTimes"), null, null, null));
+
+        assertThat(doctorService.getDoctorFields(new LinkedHashSet<>(List.of("name", "availableTimes")),
+                null, "CARDIOLOGY", "PM"))
+                .containsExactly(
+                        Map.of("name", "Dr. Adams", "availableTimes", List.of("09:00", "10:00", "14:00")),
+                        Map.of("name", "Dr. Brown", "availableTimes", List.of("15:00")));
+        assertThat(doctorService.getDoctorFields(Set.of("name"), "ada", null, "AM"))
+                .containsExactly(Map.of("name", "Dr. Adams"));
+    }
+
+    @Test
+    void sparseDashboardFieldsAreOneQuery() {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        Set<String> fields = new LinkedHashSet<>(List.of("appointmentTime", "patientName"));
+        assertQueries(1, () -> appointmentRepository.findDashboardFields(fields, doctor.getId(), start, end, null));
+
+        assertThat(appointmentRepository.findDashboardFields(fields, doctor.getId(), start, end, null))
+                .containsExactly(
+                        Map.of("appointmentTime", day.atTime(9, 0), "patientName", "Jane Doe"),
+                        Map.of("appointmentTime", day.atTime(14, 0), "patientName", "Jane Doe"));
+        assertThat(appointmentRepository.findDashboardFields(Set.of("patientId"), doctor.getId(), start, end, null))
+                .containsOnly(Map.of("patientId", patient.getId()));
+    }
+
+    @Test
+    void cancelAppointmentLoadsReleasesSlotThenDeletes() {
+        Long appointmentId = appointmentRepository.findAll().get(0).getId();
+        assertQueries(3, () -> appointmentService.cancelAppointment(appointmentId, patient.getId()));
+    }
+
+    @Test
+    void changeAppointmentStatusIsOneUpdate() {
+        Long appointmentId = appointmentRepository.findAll().get(0).getId();
+        assertQueries(1, () -> {
+            appointmentService.changeAppointmentStatus(appointmentId, 1);
+            return null;
+        });
+    }
+
+    @Test
+    void bookAppointmentClaimsSlotThenInserts() {
+        LocalDateTime time = day.atTime(10, 0);
+        assertQueries(2, () -> appointmentService.bookAppointment(new Appointment(null, doctor, patient, time, 0)));
+    }
+}
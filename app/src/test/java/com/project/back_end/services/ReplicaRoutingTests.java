@@ -0,0 +1,166 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.config.ReplicaRoutingConfig;
+import com.project.back_end.datasource.ReplicaRoutingDataSource;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Routes against two in-memory databases standing in for the primary and the
+ * replica. They are not replicated and hold different doctors, so every
+ * result shows which one served it.
+ */
+@JpaSliceTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTests.PRIMARY_URL,
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.datasource.replica.url=" + ReplicaRoutingTests.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.read-your-writes-window=30s",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ ReplicaRoutingConfig.class, DoctorService.class, AppointmentService.class, TokenService.class,
+        AppointmentShards.class, TimeSlotService.class, PatientNameIndex.class,
+        UniquenessService.class })
+class ReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        doctorRepository.save(doctor("Dr. Primary", "primary@clinic.com"));
+
+        // Same schema on the replica, different rows
+        List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String ddl : schema) {
+                statement.execute(ddl);
+            }
+            statement.execute("INSERT INTO doctors (name, specialty, email, password, phone) "
+                    + "VALUES ('Dr. Replica', 'Cardiology', 'replica@clinic.com', 'secret1', '5550000009')");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        RequestContextHolder.resetRequestAttributes();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyMethodsAreServedByTheReplica() {
+        assertThat(names(doctorService.getDoctors())).containsExactly("Dr. Replica");
+        assertThat(names(doctorService.filterDoctorBySpecialty("cardiology"))).containsExactly("Dr. Replica");
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        assertThat(doctorService.saveDoctor(doctor("Dr. New", "new@clinic.com"))).isEqualTo(1);
+
+        assertThat(names(doctorRepository.findAll())).doesNotContain("Dr. New");
+        assertThat(names(ReplicaRoutingDataSource.onPrimary(doctorService::getDoctors)))
+                .containsExactlyInAnyOrder("Dr. Primary", "Dr. New");
+    }
+
+    @Test
+    void clientReadsItsOwnWritesFromThePrimary() {
+        MockHttpServletResponse writeResponse = inRequest(new MockHttpServletRequest(), () -> {
+            doctorService.saveDoctor(doctor("Dr. New", "new@clinic.com"));
+            assertThat(names(doctorService.getDoctors())).contains("Dr. New");
+        });
+        Cookie window = writeResponse.getCookie("rw-primary-until");
+        assertThat(window).isNotNull();
+
+        MockHttpServletRequest sameClient = new MockHttpServletRequest();
+        sameClient.setCookies(window);
+        inRequest(sameClient, () -> assertThat(names(doctorService.getDoctors())).contains("Dr. New"));
+
+        inRequest(new MockHttpServletRequest(),
+                () -> assertThat(names(doctorService.getDoctors())).containsExactly("Dr. Replica"));
+    }
+
+    @Test
+    void expiredWindowFallsBackToTheReplica() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("rw-primary-until", Long.toString(System.currentTimeMillis() - 1)));
+        inRequest(request, () -> assertThat(names(doctorService.getDoctors())).containsExactly("Dr. Replica"));
+    }
+
+    @Test
+    void readOnlyTransactionsSkipSnapshotsAndAutoFlush() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertThat(session.isDefaultReadOnly()).isTrue();
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+        });
+    }
+
+    private static MockHttpServletResponse inRequest(MockHttpServletRequest request, Runnable action) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            action.run();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        return response;
+    }
+
+    private static Doctor doctor(String name, String email) {
+        return new Doctor(name, "Cardiology", email, "secret1", "5550000001", List.of("09:00"));
+    }
+
+    private static List<String> names(List<Doctor> doctors) {
+        return doctors.stream().map(Doctor::getName).toList();
+    }
+}
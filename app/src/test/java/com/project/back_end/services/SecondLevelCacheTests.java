@@ -0,0 +1,108 @@
+package com.project.back_end.services;
+
+import static com.project.back_end.services.QueryAssertions.assertQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.config.MonitoringConfig;
+import com.project.back_end.config.SecondLevelCacheConfig;
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Warm reads of the Doctor/Admin reference data are served without SQL, and
+ * DoctorService writes are visible to the next read.
+ */
+@JpaSliceTest(properties = "app.slow-query.enabled=false")
+@Import({ MonitoringConfig.class, SecondLevelCacheConfig.class,
+        DoctorService.class, AppointmentService.class, TokenService.class, AppointmentShards.class,
+        TimeSlotService.class, PatientNameIndex.class,
+        UniquenessService.class })
+class SecondLevelCacheTests {
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AdminRepository adminRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void seed() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        doctor = doctorRepository.save(new Doctor("Dr. Adams", "Cardiology", "adams@clinic.com", "secret1",
+                "5550000001", List.of("09:00", "10:00")));
+        adminRepository.save(new Admin("admin", "secret1"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        doctorRepository.deleteAll();
+        adminRepository.deleteAll();
+    }
+
+    @Test
+    void naturalIdLookupsAreServedFromCache() {
+        doctorRepository.findByEmail("adams@clinic.com");
+        adminRepository.findByUsername("admin");
+
+        assertQueries(0, () -> doctorRepository.findByEmail("adams@clinic.com"));
+        assertQueries(0, () -> adminRepository.findByUsername("admin"));
+        assertThat(doctorRepository.findByEmail("nobody@clinic.com")).isNull();
+    }
+
+    @Test
+    void directoryQueriesAreServedFromCache() {
+        doctorService.getDoctors();
+        doctorService.filterDoctorBySpecialty("cardiology");
+
+        assertQueries(0, () -> doctorService.getDoctors());
+        assertQueries(0, () -> doctorService.filterDoctorBySpecialty("cardiology"));
+    }
+
+    @Test
+    void availabilityOnlyQueriesAppointmentsWhenWarm() {
+        // Past the slot horizon, so computed from the (cached) template
+        Date date = Date.valueOf(LocalDate.now().plusYears(1));
+        doctorService.getDoctorAvailability(doctor.getId(), date);
+
+        assertQueries(1, () -> doctorService.getDoctorAvailability(doctor.getId(), date));
+    }
+
+    @Test
+    void doctorServiceWritesAreVisibleToCachedReads() {
+        doctorService.getDoctors();
+        doctorRepository.findByEmail("adams@clinic.com");
+
+        Doctor updated = new Doctor("Dr. Adams", "Neurology", "adams@hospital.com", "secret1",
+                "5550000001", new ArrayList<>(List.of("15:00")));
+        assertThat(doctorService.updateDoctor(doctor.getId(), updated)).isEqualTo(1);
+
+        Doctor reloaded = doctorService.getDoctors().get(0);
+        assertThat(reloaded.getSpecialty()).isEqualTo("Neurology");
+        assertThat(reloaded.getAvailableTimes()).containsExactly("15:00");
+        assertThat(doctorRepository.findByEmail("adams@clinic.com")).isNull();
+        assertThat(doctorRepository.findByEmail("adams@hospital.com")).isNotNull();
+    }
+}
@@ -0,0 +1,182 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.config.ShardingConfig;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.sharding.AppointmentShards;
+import com.project.back_end.sharding.ShardMap;
+
+/**
+ * Shards appointments over three in-memory databases. Doctors and patients
+ * are copied to every shard after seeding, standing in for the replication
+ * of reference tables; each shard numbers appointments from its own id range.
+ */
+@JpaSliceTest(properties = {
+        "spring.datasource.url=" + ShardingTests.HOME_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.sharding.shards[0].name=east",
+        "app.sharding.shards[0].url=" + ShardingTests.EAST_URL,
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[1].name=west",
+        "app.sharding.shards[1].url=" + ShardingTests.WEST_URL,
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.buckets=16",
+        "app.sharding.id-range=1000000",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ ShardingConfig.class, AppointmentShards.class,
+        DoctorService.class, AppointmentService.class, TokenService.class, TimeSlotService.class,
+        PatientNameIndex.class, UniquenessService.class })
+class ShardingTests {
+
+    static final String HOME_URL = "jdbc:h2:mem:shard-home;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String EAST_URL = "jdbc:h2:mem:shard-east;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String WEST_URL = "jdbc:h2:mem:shard-west;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ShardMap shardMap;
+    @Autowired
+    @Qualifier("homeDataSource")
+    private DataSource homeDataSource;
+
+    private final List<Doctor> doctors = new ArrayList<>();
+    private Patient patient;
+    private LocalDate day;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        day = LocalDate.now().plusDays(7);
+        patient = patientRepository.save(new Patient("Jane Doe", "jane@mail.com", "secret1", "5550000003", "1 Main St"));
+        // Enough doctors to land on every shard
+        for (int i = 0; doctors.stream().map(d -> shardMap.shardFor(d.getId())).distinct().count() < 3; i++) {
+            doctors.add(doctorRepository.save(new Doctor("Dr. " + i, "Cardiology", "dr" + i + "@clinic.com",
+                    "secret1", "555000" + String.format("%04d", i), new ArrayList<>(List.of("09:00", "10:00")))));
+        }
+
+        List<String> reference = new JdbcTemplate(homeDataSource).queryForList("SCRIPT", String.class);
+        copyTo(EAST_URL, reference, 1_000_000);
+        copyTo(WEST_URL, reference, 2_000_000);
+    }
+
+    private static void copyTo(String url, List<String> script, long firstAppointmentId) throws SQLException {
+        try (Connection shard = DriverManager.getConnection(url, "sa", "");
+             Statement statement = shard.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+            statement.execute("ALTER TABLE appointments ALTER COLUMN id RESTART WITH " + firstAppointmentId);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        doctors.clear();
+    }
+
+    @Test
+    void bookingsLandOnTheDoctorsShard() throws SQLException {
+        for (Doctor doctor : doctors) {
+            assertThat(appointmentService.bookAppointment(new Appointment(null, doctor, patient, day.atTime(9, 0), 0)))
+                    .isEqualTo(1);
+        }
+
+        Map<String, String> urls = Map.of("home", HOME_URL, "east", EAST_URL, "west", WEST_URL);
+        for (Doctor doctor : doctors) {
+            String owner = shardMap.shardFor(doctor.getId());
+            urls.forEach((shard, url) -> assertThat(countAppointments(url, doctor.getId()))
+                    .as("%s on %s", doctor.getName(), shard)
+                    .isEqualTo(shard.equals(owner) ? 1 : 0));
+
+            assertThat(appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, null)).hasSize(1);
+            assertThat(doctorService.getDoctorAvailability(doctor.getId(), java.sql.Date.valueOf(day)))
+                    .containsExactly("10:00");
+        }
+    }
+
+    @Test
+    void appointmentIdsAreFollowedToTheirShard() {
+        Doctor doctor = doctors.get(doctors.size() - 1);
+        appointmentService.bookAppointment(new Appointment(null, doctor, patient, day.atTime(9, 0), 0));
+        Long id = appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, null).get(0).getId();
+        assertThat(shardMap.shardOfAppointment(id)).isEqualTo(shardMap.shardFor(doctor.getId()));
+
+        appointmentService.changeAppointmentStatus(id, 1);
+        assertThat(appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, null).get(0).getStatus())
+                .isEqualTo(1);
+
+        assertThat(appointmentService.cancelAppointment(id, patient.getId())).isEqualTo("Appointment canceled successfully");
+        assertThat(appointmentService.getAppointmentsForDoctorOnDate(doctor.getId(), day, null)).isEmpty();
+        assertThat(appointmentService.cancelAppointment(id, patient.getId())).isEqualTo("Appointment not found");
+    }
+
+    @Test
+    void bucketOverridesMoveDoctorsBetweenShards() {
+        ShardMap map = new ShardMap(List.of("home", "east"), 4, Map.of(0, "east", 1, "east"), 1000);
+        for (long doctorId = 1; doctorId <= 100; doctorId++) {
+            int bucket = map.bucketOf(doctorId);
+            assertThat(map.shardFor(doctorId)).isEqualTo(bucket == 2 ? "home" : "east");
+        }
+        assertThat(map.shardOfAppointment(999)).isEqualTo("home");
+        assertThat(map.shardOfAppointment(1000)).isEqualTo("east");
+        assertThat(map.shardOfAppointment(2000)).as("outside every range").isEqualTo("home");
+        assertThatThrownBy(() -> new ShardMap(List.of("home"), 4, Map.of(1, "north"), 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int countAppointments(String url, Long doctorId) {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             var rows = statement.executeQuery("SELECT COUNT(*) FROM appointments WHERE doctor_id = " + doctorId)) {
+            rows.next();
+            return rows.getInt(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.DTO.EarliestSlot;
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.DoctorTimeSlotRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+@JpaSliceTest(properties = {
+        "app.slots.horizon-days=3",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Import({ DoctorService.class, AppointmentService.class, TokenService.class, AppointmentShards.class,
+        TimeSlotService.class, PatientNameIndex.class,
+        UniquenessService.class })
+class TimeSlotTests {
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorTimeSlotRepository slotRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Doctor doctor;
+    private Patient patient;
+    private LocalDate day;
+
+    @BeforeEach
+    void seed() {
+        day = LocalDate.now().plusDays(1);
+        doctor = doctorRepository.save(new Doctor("Dr. Adams", "Cardiology", "adams@clinic.com", "secret1",
+                "5550000001", new ArrayList<>(List.of("09:00", "10:00-10:30"))));
+        patient = patientRepository.save(new Patient("Jane Doe", "jane@mail.com", "secret1",
+                "5550000003", "1 Main St"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void materializingMarksBookedSlotsAndCanBeRepeated() {
+        appointmentRepository.save(new Appointment(null, doctor, patient, day.atTime(9, 0), 0));
+
+        assertThat(materialize(day, day.plusDays(1))).isEqualTo(4);
+        assertThat(materialize(day, day.plusDays(1))).isZero();
+
+        assertThat(availability(day)).containsExactly("10:00");
+        assertThat(availability(day.plusDays(1))).containsExactly("09:00", "10:00");
+        assertThat(slotRepository.findRange(doctor.getId(), day.atTime(10, 0), day.atTime(11, 0)))
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.getEndTime()).isEqualTo(day.atTime(10, 30)));
+    }
+
+    @Test
+    void aSlotCanOnlyBeBookedOnce() {
+        materialize(day, day);
+        Patient other = patientRepository.save(new Patient("John Roe", "john@mail.com", "secret1",
+                "5550000004", "2 Main St"));
+
+        assertThat(appointmentService.bookAppointment(new Appointment(null, doctor, patient, day.atTime(10, 0), 0)))
+                .isEqualTo(1);
+        assertThat(appointmentService.bookAppointment(new Appointment(null, doctor, other, day.atTime(10, 0), 0)))
+                .isEqualTo(-1);
+        assertThat(availability(day)).containsExactly("09:00");
+
+        Long id = appointmentRepository.findAll().get(0).getId();
+        appointmentService.cancelAppointment(id, patient.getId());
+        assertThat(availability(day)).containsExactly("09:00", "10:00");
+    }
+
+    @Test
+    void aDayPastTheHorizonIsMaterializedOnItsFirstBooking() {
+        LocalDate late = LocalDate.now().plusDays(10);
+        Patient other = patientRepository.save(new Patient("John Roe", "john@mail.com", "secret1",
+                "5550000004", "2 Main St"));
+
+        assertThat(appointmentService.bookAppointment(new Appointment(null, doctor, patient, late.atTime(9, 0), 0)))
+                .isEqualTo(1);
+        assertThat(appointmentService.bookAppointment(new Appointment(null, doctor, other, late.atTime(9, 0), 0)))
+                .isEqualTo(-1);
+        assertThat(appointmentService.bookAppointment(new Appointment(null, doctor, other, late.atTime(9, 30), 0)))
+                .as("not in the template").isEqualTo(-1);
+        assertThat(appointmentRepository.count()).isEqualTo(1);
+        assertThat(availability(late)).containsExactly("10:00");
+
+        // The booked day does not hide the days before it from the scheduled extension
+        timeSlotService.extendHorizon();
+        assertThat(slotRepository.count()).isEqualTo(6 + 2);
+    }
+
+    @Test
+    void horizonIsExtendedOnlyByMissingDays() {
+        materialize(LocalDate.now(), LocalDate.now());
+
+        timeSlotService.extendHorizon();
+        assertThat(slotRepository.count()).isEqualTo(6);
+        timeSlotService.extendHorizon();
+        assertThat(slotRepository.count()).isEqualTo(6);
+    }
+
+    @Test
+    void templateChangeKeepsBookedSlots() {
+        materialize(day, day);
+        appointmentService.bookAppointment(new Appointment(null, doctor, patient, day.atTime(9, 0), 0));
+
+        Doctor updated = new Doctor("Dr. Adams", "Cardiology", "adams@clinic.com", "secret1",
+                "5550000001", new ArrayList<>(List.of("15:00")));
+        doctorService.updateDoctor(doctor.getId(), updated);
+
+        assertThat(availability(day)).containsExactly("15:00");
+        assertThat(slotRepository.findRange(doctor.getId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay()))
+                .extracting(slot -> slot.getStartTime().toLocalTime().toString())
+                .containsExactly("09:00", "15:00");
+    }
+
+    @Test
+    void templateRangesAreMatchedByTheirStartPastTheHorizon() {
+        LocalDate late = LocalDate.now().plusDays(10);
+        appointmentRepository.save(new Appointment(null, doctor, patient, late.atTime(10, 0), 0));
+
+        assertThat(availability(late)).containsExactly("09:00");
+        assertThat(availability(late.plusDays(1))).as("same format as a materialized day")
+                .containsExactly("09:00", "10:00");
+        assertThat(doctorService.filterDoctorsByTime(List.of(doctor), "AM")).containsExactly(doctor);
+        assertThat(doctorService.filterDoctorsByTime(List.of(doctor), "PM")).isEmpty();
+    }
+
+    @Test
+    void earliestSlotsAreMergedAcrossTheSpecialty() {
+        Doctor other = doctorRepository.save(new Doctor("Dr. Baker", "Cardiology", "baker@clinic.com", "secret1",
+                "5550000002", new ArrayList<>(List.of("08:00", "14:00"))));
+        materialize(doctor, day, day.plusDays(1));
+        materialize(other, day, day.plusDays(1));
+        appointmentService.bookAppointment(new Appointment(null, doctor, patient, day.atTime(9, 0), 0));
+
+        assertThat(doctorService.findEarliestSlots("cardiology", "AM", 3))
+                .extracting(EarliestSlot::doctorName, EarliestSlot::date, EarliestSlot::time)
+                .containsExactly(
+                        tuple("Dr. Baker", day, "08:00"),
+                        tuple("Dr. Adams", day, "10:00"),
+                        tuple("Dr. Baker", day.plusDays(1), "08:00"));
+        assertThat(doctorService.findEarliestSlots("Cardiology", "PM", 5))
+                .extracting(EarliestSlot::date, EarliestSlot::time)
+                .containsExactly(tuple(day, "14:00"), tuple(day.plusDays(1), "14:00"));
+        assertThat(doctorService.findEarliestSlots("Dermatology", "AM", 5)).isEmpty();
+    }
+
+    @Test
+    void earliestSlotsUseTheSameNoonBoundaryAsTheTimeFilter() {
+        Doctor noon = doctorRepository.save(new Doctor("Dr. Clark", "Neurology", "clark@clinic.com", "secret1",
+                "5550000005", new ArrayList<>(List.of("12:00", "12:30"))));
+        materialize(noon, day, day);
+
+        assertThat(doctorService.findEarliestSlots("Neurology", "AM", 5)).isEmpty();
+        assertThat(doctorService.findEarliestSlots("Neurology", "PM", 5))
+                .extracting(EarliestSlot::time)
+                .containsExactly("12:30");
+        assertThat(doctorService.filterDoctorsByTime(List.of(noon), "PM")).containsExactly(noon);
+    }
+
+    private int materialize(LocalDate from, LocalDate to) {
+        return materialize(doctor, from, to);
+    }
+
+    private int materialize(Doctor target, LocalDate from, LocalDate to) {
+        return new TransactionTemplate(transactionManager).execute(status -> timeSlotService.materialize(target, from, to));
+    }
+
+    private List<String> availability(LocalDate date) {
+        return doctorService.getDoctorAvailability(doctor.getId(), Date.valueOf(date));
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.back_end.services;
+
+import static com.project.back_end.services.QueryAssertions.assertQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.project.back_end.cache.PatientNameIndex;
+import com.project.back_end.config.MonitoringConfig;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.sharding.AppointmentShards;
+
+@JpaSliceTest(properties = {
+        "app.slow-query.enabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Import({ MonitoringConfig.class, DoctorService.class, AppointmentService.class, TokenService.class,
+        AppointmentShards.class, TimeSlotService.class, PatientNameIndex.class, UniquenessService.class })
+class UniquenessTests {
+
+    @Autowired
+    private UniquenessService uniquenessService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @BeforeEach
+    void seed() {
+        doctorRepository.save(doctor("adams@clinic.com"));
+        patientRepository.save(new Patient("Jane Doe", "jane@mail.com", "secret1", "5550000003", "1 Main St"));
+        uniquenessService.seed();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void certainlyNewContactsSkipTheLookup() {
+        assertQueries(0, () -> uniquenessService.patientContactTaken("john@mail.com", "5550000004"));
+        assertQueries(0, () -> uniquenessService.doctorEmailTaken("brown@clinic.com"));
+
+        assertThat(uniquenessService.patientContactTaken("jane@mail.com", "5550000004")).isTrue();
+        assertThat(uniquenessService.patientContactTaken("john@mail.com", "5550000003")).isTrue();
+        assertThat(uniquenessService.doctorEmailTaken("adams@clinic.com")).isTrue();
+    }
+
+    @Test
+    void unseenDuplicatesAreCaughtByTheUniqueKeys() {
+        // Registered on another node: not in this node's filter
+        doctorRepository.save(doctor("brown@clinic.com"));
+        assertThat(doctorService.saveDoctor(doctor("brown@clinic.com"))).isEqualTo(-1);
+        assertThat(doctorService.saveDoctor(doctor("carter@clinic.com"))).isEqualTo(1);
+        assertThat(doctorService.saveDoctor(doctor("carter@clinic.com"))).isEqualTo(-1);
+
+        assertThatThrownBy(() -> patientRepository.save(
+                new Patient("John Roe", "john@mail.com", "secret1", "5550000003", "2 Main St")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static Doctor doctor(String email) {
+        return new Doctor("Dr. Adams", "Cardiology", email, "secret1", "5550000001",
+                new ArrayList<>(List.of("09:00")));
+    }
+}
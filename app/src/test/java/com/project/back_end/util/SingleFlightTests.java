@@ -0,0 +1,118 @@
+package com.project.back_end.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTests {
+
+    private static final int CALLERS = 16;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flights = new SingleFlight<>("test", registry);
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(() -> flights.run("doctor-1/2026-10-20", () -> {
+            computations.incrementAndGet();
+            await(release);
+            return "slots";
+        }));
+        waitForWaiters();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("slots");
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(registry.counter("clinic.singleflight.shared", "name", "test").count()).isEqualTo(CALLERS - 1);
+        assertThat(flights.inFlightCount()).isZero();
+    }
+
+    @Test
+    void failureIsSharedAndNotRemembered() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = callConcurrently(() -> flights.run("key", () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        waitForWaiters();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(flights.run("key", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void differentKeysRunIndependently() throws Exception {
+        CountDownLatch aStarted = new CountDownLatch(1);
+        CountDownLatch releaseA = new CountDownLatch(1);
+        Future<String> a = pool.submit(() -> flights.run("a", () -> {
+            aStarted.countDown();
+            await(releaseA);
+            return "A";
+        }));
+        assertThat(aStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // "b" completes while "a" is still held in flight
+        Future<String> b = pool.submit(() -> flights.run("b", () -> "B"));
+        assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("B");
+        assertThat(a.isDone()).isFalse();
+        assertThat(flights.inFlightCount()).isEqualTo(1);
+
+        releaseA.countDown();
+        assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(registry.counter("clinic.singleflight.shared", "name", "test").count()).isZero();
+    }
+
+    private List<Future<String>> callConcurrently(Callable<String> call) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(pool.submit(call));
+        }
+        return results;
+    }
+
+    // Every caller but the leader has registered as shared
+    private void waitForWaiters() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.counter("clinic.singleflight.shared", "name", "test").count() < CALLERS - 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
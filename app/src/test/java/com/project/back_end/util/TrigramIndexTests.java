@@ -0,0 +1,34 @@
+package com.project.back_end.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTests {
+
+    private final TrigramIndex<Long> index = TrigramIndex.of(List.of(1L, 2L, 3L, 4L),
+            Arrays.asList("Jane Doe", "John  Roe", "Zoë Doerr", null));
+
+    @Test
+    void matchesSubstringsIgnoringCaseAndAccents() {
+        assertThat(index.search("DOE")).containsExactly(1L, 3L);
+        assertThat(index.search("zoe d")).containsExactly(3L);
+        assertThat(index.search("john roe")).containsExactly(2L);
+    }
+
+    @Test
+    void gramsThatAreNotAdjacentDoNotMatch() {
+        // "ane" and "doe" both occur in "jane doe", but not as "anedoe"
+        assertThat(index.search("anedoe")).isEmpty();
+        assertThat(index.search("smith")).isEmpty();
+    }
+
+    @Test
+    void shortQueriesScanTheTexts() {
+        assertThat(index.search("oe")).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("")).containsExactly(1L, 2L, 3L, 4L);
+    }
+}
@@ -0,0 +1,53 @@
+// Decoder tests for static/js/services/cbor.js; run with: node --test src/test/js
+import { test } from "node:test";
+import assert from "node:assert/strict";
+
+import { decodeCbor, readBody } from "../../main/resources/static/js/services/cbor.js";
+
+const text = (s) => {
+  const bytes = new TextEncoder().encode(s);
+  return [0x60 + bytes.length, ...bytes];
+};
+const cbor = (...bytes) => new Uint8Array(bytes).buffer;
+
+test("maps, arrays and scalars decode like JSON", () => {
+  // {"id": 1000, "name": "Jane", "times": ["09:00"], "rate": 1.5, "ok": true, "none": null, "neg": -2}
+  const value = decodeCbor(cbor(0xa7,
+    ...text("id"), 0x19, 0x03, 0xe8,
+    ...text("name"), ...text("Jane"),
+    ...text("times"), 0x81, ...text("09:00"),
+    ...text("rate"), 0xf9, 0x3e, 0x00,
+    ...text("ok"), 0xf5,
+    ...text("none"), 0xf6,
+    ...text("neg"), 0x21));
+
+  assert.deepEqual({ ...value }, { id: 1000, name: "Jane", times: ["09:00"], rate: 1.5, ok: true, none: null, neg: -2 });
+});
+
+test("indefinite-length maps and arrays end at the break", () => {
+  const value = decodeCbor(cbor(0xbf, ...text("slots"), 0x9f, 0x01, 0x02, 0xff, 0xff));
+  assert.deepEqual(value.slots, [1, 2]);
+});
+
+test("a __proto__ key is data, not the prototype", () => {
+  const value = decodeCbor(cbor(0xa1, ...text("__proto__"), 0xa1, ...text("admin"), 0xf5));
+
+  assert.equal(Object.getPrototypeOf(value), null);
+  assert.equal(value.admin, undefined);
+  assert.equal(value["__proto__"].admin, true);
+  assert.equal({}.admin, undefined);
+});
+
+test("readBody decodes CBOR and reads plain-text errors as a message", async () => {
+  const ok = new Response(new Uint8Array([0xa1, ...text("n"), 0x07]), {
+    status: 200, headers: { "Content-Type": "application/cbor" } });
+  assert.equal((await readBody(ok)).n, 7);
+
+  const json = new Response('{"message":"Not found"}', {
+    status: 404, headers: { "Content-Type": "application/json" } });
+  assert.deepEqual(await readBody(json), { message: "Not found" });
+
+  const plain = new Response("Invalid or expired token.", {
+    status: 401, headers: { "Content-Type": "text/plain;charset=UTF-8" } });
+  assert.deepEqual(await readBody(plain), { message: "Invalid or expired token." });
+});
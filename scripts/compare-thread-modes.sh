@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Compares throughput and p99 of the default platform-thread mode with the
+# "virtual-threads" profile at high concurrency.
+#
+# Requires a Java 21+ JDK on the PATH and the MySQL/MongoDB instances from
+# application.properties. Usage:
+#   scripts/compare-thread-modes.sh [concurrency] [durationSeconds] [paths]
+set -euo pipefail
+
+CONCURRENCY=${1:-1000}
+DURATION=${2:-30}
+PATHS=${3:-/doctor/all,/doctor/filter?speciality=Cardiology}
+PORT=${PORT:-8080}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+
+cd "$(dirname "$0")/../app"
+./mvnw -q -DskipTests package test-compile
+
+run_mode() {
+    local label=$1
+    shift
+    java -jar target/back-end-0.0.1-SNAPSHOT.jar --server.port="$PORT" "$@" > "target/$label.log" 2>&1 &
+    local pid=$!
+    local deadline=$((SECONDS + STARTUP_TIMEOUT))
+    until curl -s -o /dev/null "http://localhost:$PORT/doctor/all"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$label failed to start, see target/$label.log" >&2
+            exit 1
+        fi
+        if (( SECONDS >= deadline )); then
+            echo "$label not ready after ${STARTUP_TIMEOUT}s, see target/$label.log" >&2
+            kill "$pid"
+            exit 1
+        fi
+        sleep 1
+    done
+    java -cp target/test-classes com.project.back_end.bench.ThreadModeBenchmark \
+        "http://localhost:$PORT" "$CONCURRENCY" "$DURATION" "$PATHS" "$label"
+    kill "$pid"
+    wait "$pid" || true
+}
+
+run_mode platform
+run_mode virtual --spring.profiles.active=virtual-threads
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Measures cold-start time of the default jar against the fast-startup mode
+# (Spring AOT + AppCDS archive + ddl-auto=validate), the same layout as the
+# "fast-startup" Docker target.
+#
+# Reports, per run, Spring's "Started ... in" time and the wall time from
+# process launch until /actuator/health answers UP, as JSON lines.
+#
+# Requires the MySQL/MongoDB instances from application.properties, with the
+# schema already created (fast-startup only validates it). Usage:
+#   scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+JAR=back-end-0.0.1-SNAPSHOT.jar
+
+cd "$(dirname "$0")/../app"
+./mvnw -q -DskipTests -Pfast-startup package
+
+# Exploded layout and CDS archive, trained without touching the databases
+rm -rf target/fast-startup
+java -Djarmode=tools -jar "target/$JAR" extract --destination target/fast-startup > /dev/null
+java -XX:ArchiveClassesAtExit=target/fast-startup/application.jsa \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "target/fast-startup/$JAR" \
+    --spring.profiles.active=fast-startup \
+    --spring.jpa.hibernate.ddl-auto=none \
+    --spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+    --spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect > target/cds-training.log 2>&1
+
+now_ms() { date +%s%3N; }
+
+measure() {
+    local label=$1
+    shift
+    local log="target/startup-$label.log"
+    local start
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > "$log" 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health" | grep -q '"status":"UP"'; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$label failed to start, see $log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    local ready=$(( $(now_ms) - start ))
+    local started
+    started=$(grep -o 'Started BackEndApplication in [0-9.]*' "$log" | awk '{print $4}')
+    kill "$pid"
+    wait "$pid" || true
+    printf '{"mode":"%s","startedSeconds":%s,"readyMs":%d}\n' "$label" "$started" "$ready"
+}
+
+for _ in $(seq "$RUNS"); do
+    measure default java -jar "target/$JAR"
+    measure fast-startup java -XX:SharedArchiveFile=target/fast-startup/application.jsa \
+        -Dspring.aot.enabled=true -jar "target/fast-startup/$JAR" --spring.profiles.active=fast-startup
+done